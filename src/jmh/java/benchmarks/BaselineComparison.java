@@ -0,0 +1,105 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH json result file ({@code -rf json}) with a baseline result file of an earlier run and
+ * exits with 1 when any benchmark lost more than {@code threshold} (0.15 = 15 %) of its throughput and
+ * the confidence intervals JMH reports for both runs do not overlap. Average, sample and single shot times
+ * count as {@code 1 / time}, so slower is a loss in every mode.
+ * Benchmarks missing from the baseline are listed as new and never fail the comparison.
+ * <p>
+ * Arguments: {@code <results.json> <baseline.json> <threshold> [report.txt]}; run by {@code gradle jmhCompare}.
+ */
+public class BaselineComparison {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: BaselineComparison <results.json> <baseline.json> <threshold> [report.txt]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[1]);
+        if (!baselineFile.isFile()) {
+            System.out.println("[JMH BASELINE] No baseline " + baselineFile + ", save one with gradle jmhSaveBaseline");
+            return;
+        }
+        Map<String, Throughput> results = throughputs(new File(args[0]));
+        Map<String, Throughput> baseline = throughputs(baselineFile);
+        double threshold = Double.parseDouble(args[2]);
+
+        StringBuilder report = new StringBuilder(String.format("%-90s %8s%n", "benchmark", "change"));
+        int regressions = 0;
+        for (Map.Entry<String, Throughput> result : results.entrySet()) {
+            Throughput before = baseline.get(result.getKey());
+            if (before == null) {
+                report.append(String.format("%-90s %8s%n", result.getKey(), "new"));
+                continue;
+            }
+            double change = result.getValue().value / before.value - 1;
+            boolean regression = change < -threshold && result.getValue().high < before.low;
+            if (regression) regressions++;
+            report.append(String.format("%-90s %+7.1f%%%s%n", result.getKey(), change * 100,
+                    regression ? "  REGRESSION" : change < -threshold ? "  (within error)" : ""));
+        }
+        report.append(String.format("%d of %d benchmarks lost more than %.0f%% of their baseline throughput%n",
+                regressions, results.size(), threshold * 100));
+
+        System.out.print(report);
+        if (args.length > 3) {
+            Path reportFile = Paths.get(args[3]);
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        if (regressions > 0) System.exit(1);
+    }
+
+    /**
+     * Operations per time unit of every benchmark and parameter combination, keyed like
+     * {@code benchmarks.JsonSchemaBenchmark.cachedSchema books=1000 [avgt]}.
+     */
+    static Map<String, Throughput> throughputs(File jmhJson) throws IOException {
+        Map<String, Throughput> throughputs = new TreeMap<>();
+        for (JsonNode run : MAPPER.readTree(jmhJson)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            for (Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields(); params.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            String mode = run.path("mode").asText();
+            key.append(" [").append(mode).append(']');
+            JsonNode metric = run.path("primaryMetric");
+            double score = metric.path("score").asDouble();
+            // NaN with fewer than 2 measurement iterations, then only the threshold counts
+            double error = metric.path("scoreError").asDouble(Double.NaN);
+            if (Double.isNaN(error) || Double.isInfinite(error)) error = 0;
+            throughputs.put(key.toString(), "thrpt".equals(mode)
+                    ? new Throughput(score, score - error, score + error)
+                    : new Throughput(1 / score, 1 / (score + error), error < score ? 1 / (score - error) : Double.MAX_VALUE));
+        }
+        return throughputs;
+    }
+
+    static class Throughput {
+        private final double value;
+        private final double low;
+        private final double high;
+
+        Throughput(double value, double low, double high) {
+            this.value = value;
+            this.low = low;
+            this.high = high;
+        }
+    }
+}
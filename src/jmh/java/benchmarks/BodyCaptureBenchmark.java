@@ -0,0 +1,94 @@
+package benchmarks;
+
+import api.ApiSpecs;
+import filters.AllureHttpFilter;
+import filters.BodyCapture;
+import io.restassured.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static stubs.DemoQaStub.BOOKS_PATH;
+
+/**
+ * Response attachment cost for multi-megabyte {@link DemoQaStub} responses read by the test: full
+ * prettified body (AllureRestAssured) against {@link BodyCapture} capturing from the response stream.
+ * Run with {@code -Djmh.args="-prof gc"} and compare {@code gc.alloc.rate.norm} for the memory side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class BodyCaptureBenchmark {
+
+    @Param({"2000", "8000", "32000"})
+    public int books;
+
+    private DemoQaStub stub;
+    private String url;
+    private Filter fullFilter;
+    private Filter cappedFilter;
+    private Path spillDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        ApiSpecs.install();
+        stub = DemoQaStub.start().withBooks(books);
+        url = stub.getUrl() + BOOKS_PATH;
+        spillDir = Files.createTempDirectory("body-capture-benchmark");
+        fullFilter = new AllureHttpFilter("request.ftl", "response.ftl", null);
+        cappedFilter = new AllureHttpFilter("request.ftl", "response.ftl",
+                new BodyCapture(16 * 1024, 4 * 1024, 64 * 1024, spillDir));
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.close();
+    }
+
+    /**
+     * Outside a test spill files are kept for the preview to name them.
+     */
+    @TearDown(Level.Invocation)
+    public void deleteSpills() throws IOException {
+        try (Stream<Path> spills = Files.list(spillDir)) {
+            for (Path spill : (Iterable<Path>) spills::iterator) {
+                Files.delete(spill);
+            }
+        }
+    }
+
+    @Benchmark
+    public int fullBody() {
+        return readBody(fullFilter);
+    }
+
+    @Benchmark
+    public int cappedBody() {
+        return readBody(cappedFilter);
+    }
+
+    private int readBody(Filter filter) {
+        return given().filter(filter).get(url).asByteArray().length;
+    }
+}
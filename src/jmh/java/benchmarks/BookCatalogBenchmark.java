@@ -0,0 +1,149 @@
+package benchmarks;
+
+import api.StreamingExtractor;
+import models.Book;
+import models.BookCatalog;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.BooksPayloads;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookCatalog} against {@code List<Book>}: retained heap of a loaded catalog (the
+ * {@code retainedBytes} secondary result of the {@code footprint*} single shots, summed if run with more than one
+ * measurement iteration) and ISBN lookup time against a list scan and a {@code HashMap<String, Book>}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-XX:+UseSerialGC"})
+public class BookCatalogBenchmark {
+
+    @Param({"100000"})
+    private int books;
+
+    private List<Book> list;
+    private Map<String, Book> map;
+    private BookCatalog catalog;
+    private String[] isbns;
+
+    @Setup
+    public void setUp() {
+        list = readBooks();
+        map = new HashMap<>();
+        list.forEach(book -> map.put(book.getIsbn(), book));
+        catalog = BookCatalog.of(list, false);
+        isbns = list.stream().map(Book::getIsbn).toArray(String[]::new);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            retainedBytes = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public int footprintBooks(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        List<Book> loaded = readBooks();
+        footprint.retainedBytes = usedHeapAfterGc() - before;
+        return loaded.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public int footprintCatalog(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        BookCatalog loaded = BookCatalog.read(BooksPayloads.booksJsonStream(books), false);
+        footprint.retainedBytes = usedHeapAfterGc() - before;
+        return loaded.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public int footprintCatalogDedupTexts(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        BookCatalog loaded = BookCatalog.read(BooksPayloads.booksJsonStream(books), true);
+        footprint.retainedBytes = usedHeapAfterGc() - before;
+        return loaded.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int lookupMap() {
+        return map.get(randomIsbn()).getPages();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int lookupListScan() {
+        String isbn = randomIsbn();
+        for (Book book : list) {
+            if (book.getIsbn().equals(isbn)) return book.getPages();
+        }
+        return -1;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int lookupCatalog() {
+        return catalog.getPages(catalog.indexOf(randomIsbn()));
+    }
+
+    private String randomIsbn() {
+        return isbns[ThreadLocalRandom.current().nextInt(isbns.length)];
+    }
+
+    private List<Book> readBooks() {
+        List<Book> result = new ArrayList<>();
+        StreamingExtractor.books().forEach(BooksPayloads.booksJsonStream(books), result::add);
+        return result;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
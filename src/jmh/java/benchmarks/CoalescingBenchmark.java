@@ -0,0 +1,118 @@
+package benchmarks;
+
+import api.ApiSpecs;
+import api.PooledConnectionManager;
+import filters.CoalescingFilter;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Wall-clock time of {@code rounds} rounds of {@code callers} tests fetching the book list at the same moment
+ * from {@link DemoQaStub} answering after {@code latencyMillis}, with and without {@link CoalescingFilter}
+ * ({@code coalesce}: {@code off}, {@code on}, {@code cache} with a 1 s TTL). Upstream calls made and saved
+ * are printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CoalescingBenchmark {
+    @Param({"4"})
+    private int callers;
+
+    @Param({"10"})
+    private int rounds;
+
+    @Param({"100"})
+    private int latencyMillis;
+
+    @Param({"off", "on", "cache"})
+    private String coalesce;
+
+    private DemoQaStub stub;
+    private PooledConnectionManager connectionManager;
+    private RestAssuredConfig config;
+    private ExecutorService executor;
+    private CoalescingFilter filter;
+    private String booksUrl;
+    private int stubRequests;
+
+    @Setup
+    public void setUp() throws IOException {
+        stub = DemoQaStub.start().withResponseDelay(Duration.ofMillis(latencyMillis));
+        booksUrl = stub.getUrl() + DemoQaStub.BOOKS_PATH;
+        connectionManager = new PooledConnectionManager(callers, callers, 30, TimeUnit.SECONDS);
+        config = ApiSpecs.pooledConfig(connectionManager, 30);
+        executor = Executors.newFixedThreadPool(callers);
+    }
+
+    @Setup(Level.Iteration)
+    public void newFilter() {
+        filter = "cache".equals(coalesce) ? new CoalescingFilter(1000, 16 * 1024 * 1024) : new CoalescingFilter(0, 0);
+        stubRequests = stub.getRequests(DemoQaStub.BOOKS_PATH);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printSaved() {
+        int upstream = stub.getRequests(DemoQaStub.BOOKS_PATH) - stubRequests;
+        System.out.printf("%n[%s] %d GETs, %d upstream, %d saved%n", coalesce, callers * rounds, upstream,
+                callers * rounds - upstream);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        connectionManager.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public int rounds() throws InterruptedException {
+        AtomicInteger ok = new AtomicInteger();
+        for (int round = 0; round < rounds; round++) {
+            CountDownLatch done = new CountDownLatch(callers);
+            for (int i = 0; i < callers; i++) {
+                executor.execute(() -> {
+                    try {
+                        RequestSpecification request = given().config(config);
+                        if (!"off".equals(coalesce)) request.filter(filter);
+                        if (request.get(booksUrl).getStatusCode() == 200) ok.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+        if (ok.get() != callers * rounds) {
+            throw new IllegalStateException((callers * rounds - ok.get()) + " GETs failed");
+        }
+        return ok.get();
+    }
+}
@@ -0,0 +1,151 @@
+package benchmarks;
+
+import api.ApiSpecs;
+import api.PooledConnectionManager;
+import helpers.VirtualThreads;
+import io.restassured.config.RestAssuredConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+
+/**
+ * Wall-clock time of a suite of {@code tests} simulated API tests (generate a token, list books) against
+ * {@link DemoQaStub} answering after {@code latencyMillis}, the way the suite runs them:
+ * <ul>
+ *     <li>{@code fixed}: 16 platform threads, as {@code -Dthreads=16} with the fixed strategy</li>
+ *     <li>{@code platform}: one platform thread per test</li>
+ *     <li>{@code virtual}: one virtual thread per test, needs Java 21 ({@code gradle jmh -PvirtualThreads}),
+ *     falls back to {@code fixed} otherwise</li>
+ * </ul>
+ * Peak live threads and peak heap of each iteration are printed after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class ConcurrentApiTestsBenchmark {
+    private static final String BODY = "{ \"userName\": \"alex\", \"password\": \"W1_#zqwerty\" }";
+    private static final int FIXED_THREADS = 16;
+
+    @Param({"1000"})
+    private int tests;
+
+    @Param({"100"})
+    private int latencyMillis;
+
+    @Param({"fixed", "platform", "virtual"})
+    private String execution;
+
+    private DemoQaStub stub;
+    private PooledConnectionManager connectionManager;
+    private RestAssuredConfig config;
+    private String tokenUrl;
+    private String booksUrl;
+
+    @Setup
+    public void setUp() throws IOException {
+        stub = DemoQaStub.start().withResponseDelay(Duration.ofMillis(latencyMillis));
+        tokenUrl = stub.getUrl() + GENERATE_TOKEN_PATH;
+        booksUrl = stub.getUrl() + DemoQaStub.BOOKS_PATH;
+        connectionManager = new PooledConnectionManager(tests, tests, 30, TimeUnit.SECONDS);
+        config = ApiSpecs.pooledConfig(connectionManager, 30);
+        if ("virtual".equals(execution) && !VirtualThreads.isAvailable()) {
+            System.out.println("[VIRTUAL THREADS] Not available on Java " + System.getProperty("java.version")
+                    + ", running on " + FIXED_THREADS + " platform threads");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeaks() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeaks() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long heap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) heap += pool.getPeakUsage().getUsed();
+        }
+        System.out.printf("%n[%s] peak threads %d, peak heap %d MB%n", execution, threads.getPeakThreadCount(),
+                heap / (1024 * 1024));
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionManager.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public int suite() throws InterruptedException {
+        ExecutorService executor = executor();
+        CountDownLatch done = new CountDownLatch(tests);
+        AtomicInteger passed = new AtomicInteger();
+        try {
+            for (int i = 0; i < tests; i++) {
+                executor.execute(() -> {
+                    try {
+                        if (simulatedTest()) passed.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+        if (passed.get() != tests) {
+            throw new IllegalStateException((tests - passed.get()) + " of " + tests + " simulated tests failed");
+        }
+        return passed.get();
+    }
+
+    private boolean simulatedTest() {
+        int token = given().config(config).contentType(JSON).body(BODY).post(tokenUrl).statusCode();
+        int books = given().config(config).get(booksUrl).statusCode();
+        return token == 200 && books == 200;
+    }
+
+    private ExecutorService executor() {
+        switch (execution) {
+            case "platform":
+                return Executors.newCachedThreadPool();
+            case "virtual":
+                return VirtualThreads.newExecutor("suite", FIXED_THREADS);
+            default:
+                return Executors.newFixedThreadPool(FIXED_THREADS);
+        }
+    }
+}
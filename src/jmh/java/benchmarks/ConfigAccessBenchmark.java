@@ -0,0 +1,52 @@
+package benchmarks;
+
+import config.DriverConfig;
+import config.cv_config.TestDataConfig;
+import org.aeonbits.owner.ConfigFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tests.TestData;
+
+import java.util.concurrent.TimeUnit;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Cost of one config accessor: a fresh Owner proxy per call (previous behaviour)
+ * against the proxy cached in {@link config.ConfigRegistry}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigAccessBenchmark {
+
+    @Benchmark
+    public String testDataUncached() {
+        return ConfigFactory.newInstance().create(TestDataConfig.class, System.getProperties()).apiUrl();
+    }
+
+    @Benchmark
+    public String testDataCached() {
+        return TestData.getApiUrl();
+    }
+
+    @Benchmark
+    public String driverConfigUncached() {
+        return ConfigFactory.newInstance().create(DriverConfig.class, System.getProperties()).webBrowser();
+    }
+
+    @Benchmark
+    public String driverConfigCached() {
+        return getConfig(DriverConfig.class).webBrowser();
+    }
+}
@@ -0,0 +1,130 @@
+package benchmarks;
+
+import api.ApiSpecs;
+import api.PooledConnectionManager;
+import helpers.CsvRows;
+import helpers.DataDrivenRun;
+import helpers.DataDrivenRun.DataResult;
+import io.restassured.config.RestAssuredConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.DemoQaStub;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static api.AuthTokenProvider.tokenRequestBody;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+
+/**
+ * Time to check {@code rows} GenerateToken rows streamed from CSV against {@link DemoQaStub} answering after
+ * {@code latencyMillis}:
+ * <ul>
+ *     <li>{@code sequential}: one row after the other, each body built as a {@code HashMap} and mapped by
+ *     REST Assured, as the copy-pasted tests do</li>
+ *     <li>{@code batched}: {@link DataDrivenRun} with {@code batchSize} rows on {@code threads} threads and
+ *     bodies serialized once by a shared writer</li>
+ * </ul>
+ * Rows per second are printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataDrivenBenchmark {
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"5"})
+    private int latencyMillis;
+
+    @Param({"256"})
+    private int batchSize;
+
+    @Param({"16"})
+    private int threads;
+
+    @Param({"sequential", "batched"})
+    private String execution;
+
+    private DemoQaStub stub;
+    private PooledConnectionManager connectionManager;
+    private RestAssuredConfig config;
+    private String tokenUrl;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() throws IOException {
+        stub = DemoQaStub.start().withResponseDelay(Duration.ofMillis(latencyMillis));
+        tokenUrl = stub.getUrl() + GENERATE_TOKEN_PATH;
+        connectionManager = new PooledConnectionManager(threads, threads, 30, TimeUnit.SECONDS);
+        config = ApiSpecs.pooledConfig(connectionManager, 30);
+        StringBuilder csv = new StringBuilder("userName,password\n");
+        for (int i = 0; i < rows; i++) csv.append("user").append(i).append(",W1_#zqwerty").append(i).append('\n');
+        this.csv = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionManager.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public long rows() {
+        long start = System.nanoTime();
+        long checked = "batched".equals(execution) ? batched() : sequential();
+        System.out.printf("%n[%s] %d rows, %.0f rows/s%n", execution, checked,
+                checked / ((System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1)));
+        return checked;
+    }
+
+    private long batched() {
+        try (CsvRows csvRows = new CsvRows(new ByteArrayInputStream(csv))) {
+            DataResult result = new DataDrivenRun(batchSize, threads).run("tokens", csvRows,
+                    row -> row.get("userName"),
+                    row -> check(tokenRequestBody(row.get("userName"), row.get("password"))));
+            if (result.getFailed() > 0) throw new IllegalStateException(result.summary());
+            return result.getRows();
+        }
+    }
+
+    private long sequential() {
+        long checked = 0;
+        try (CsvRows csvRows = new CsvRows(new ByteArrayInputStream(csv))) {
+            while (csvRows.hasNext()) {
+                CsvRows.Row row = csvRows.next();
+                Map<String, Object> data = new HashMap<>();
+                data.put("userName", row.get("userName"));
+                data.put("password", row.get("password"));
+                check(data);
+                checked++;
+            }
+        }
+        return checked;
+    }
+
+    private void check(Object body) {
+        int status = given().config(config).contentType(JSON).body(body).post(tokenUrl).statusCode();
+        if (status != 200) throw new IllegalStateException("GenerateToken answered " + status);
+    }
+}
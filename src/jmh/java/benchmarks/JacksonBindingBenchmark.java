@@ -0,0 +1,81 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import models.AuthorisationResponse;
+import models.Books;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.BooksPayloads;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding the models the tests extract with one shared {@link ObjectMapper}: a {@link Books} catalog of
+ * {@code books} generated books (8 is the real BookStore, 1000 a large one) and a GenerateToken
+ * {@link AuthorisationResponse}, both ways.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBindingBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final byte[] AUTHORISATION = ("{\"token\":\"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJ1c2VyTmFtZSI6ImFsZXgiLCJwYXNzd2\","
+            + "\"expires\":\"2021-05-01T10:00:00.000Z\",\"status\":\"Success\",\"result\":\"User authorized successfully.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private AuthorisationResponse authorisation;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"8", "1000"})
+        private int books;
+
+        private byte[] json;
+        private Books catalog;
+
+        @Setup
+        public void setUp() throws IOException {
+            json = BooksPayloads.booksJson(books);
+            catalog = MAPPER.readValue(json, Books.class);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        authorisation = MAPPER.readValue(AUTHORISATION, AuthorisationResponse.class);
+    }
+
+    @Benchmark
+    public Books readBooks(Catalog catalog) throws IOException {
+        return MAPPER.readValue(catalog.json, Books.class);
+    }
+
+    @Benchmark
+    public byte[] writeBooks(Catalog catalog) throws IOException {
+        return MAPPER.writeValueAsBytes(catalog.catalog);
+    }
+
+    @Benchmark
+    public AuthorisationResponse readAuthorisation() throws IOException {
+        return MAPPER.readValue(AUTHORISATION, AuthorisationResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeAuthorisation() throws IOException {
+        return MAPPER.writeValueAsBytes(authorisation);
+    }
+}
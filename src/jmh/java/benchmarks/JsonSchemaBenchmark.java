@@ -0,0 +1,60 @@
+package benchmarks;
+
+import io.restassured.module.jsv.JsonSchemaValidator;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.BooksPayloads;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static api.JsonSchemaRegistry.matchesCachedJsonSchemaInClasspath;
+
+/**
+ * Cost of one {@code booklist_response.json} assertion: REST Assured's matcher, which loads and
+ * compiles the schema every time, against {@link api.JsonSchemaRegistry}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSchemaBenchmark {
+    private static final String SCHEMA = "jsonSchemas/booklist_response.json";
+
+    @Param({"8", "1000"})
+    private int books;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = new String(BooksPayloads.booksJson(books), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public boolean restAssuredMatcher() {
+        return validate(JsonSchemaValidator.matchesJsonSchemaInClasspath(SCHEMA));
+    }
+
+    @Benchmark
+    public boolean cachedSchema() {
+        return validate(matchesCachedJsonSchemaInClasspath(SCHEMA));
+    }
+
+    private boolean validate(Matcher<?> matcher) {
+        if (!matcher.matches(json)) throw new IllegalStateException("Generated books do not match " + SCHEMA);
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import api.ApiSpecs;
+import api.PooledConnectionManager;
+import config.ApiConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static config.ConfigRegistry.getConfig;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+
+/**
+ * Requests per second against {@link DemoQaStub}: REST Assured defaults (new connection per request)
+ * against the shared pooled client from {@link ApiSpecs}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PooledHttpBenchmark {
+    private static final String BODY = "{ \"userName\": \"alex\", \"password\": \"W1_#zqwerty\" }";
+
+    private DemoQaStub stub;
+    private PooledConnectionManager connectionManager;
+    private RestAssuredConfig pooledConfig;
+    private RestAssuredConfig defaultConfig;
+    private String url;
+
+    @Setup
+    public void setUp() throws IOException {
+        stub = DemoQaStub.start();
+        url = stub.getUrl() + GENERATE_TOKEN_PATH;
+        ApiConfig apiConfig = getConfig(ApiConfig.class);
+        connectionManager = ApiSpecs.newConnectionManager(apiConfig);
+        pooledConfig = ApiSpecs.pooledConfig(connectionManager, apiConfig.poolKeepAliveSeconds());
+        defaultConfig = RestAssuredConfig.config();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("[HTTP POOL] " + connectionManager.getMetrics());
+        connectionManager.shutdown();
+        stub.close();
+    }
+
+    private int post(RestAssuredConfig config) {
+        return given().config(config).contentType(JSON).body(BODY).post(url).statusCode();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int default1() {
+        return post(defaultConfig);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int default4() {
+        return post(defaultConfig);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int default16() {
+        return post(defaultConfig);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int pooled1() {
+        return post(pooledConfig);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int pooled4() {
+        return post(pooledConfig);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int pooled16() {
+        return post(pooledConfig);
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import helpers.BatchingResultsWriter;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Attachments per second from 4 test threads: Allure's {@link FileSystemResultsWriter} against
+ * {@link BatchingResultsWriter}. A batching invocation only counts once its attachments are on disk.
+ * All attachments are equal, so deduplication is off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class ResultsWriterBenchmark {
+    private static final int ATTACHMENTS = 100;
+
+    @Param({"2048"})
+    private int attachmentBytes;
+
+    private byte[] attachment;
+    private Path resultsDir;
+    private FileSystemResultsWriter fileSystemWriter;
+    private BatchingResultsWriter batchingWriter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder(attachmentBytes);
+        while (text.length() < attachmentBytes) {
+            text.append("GET /BookStore/v1/Books 200 OK\n");
+        }
+        attachment = text.substring(0, attachmentBytes).getBytes(StandardCharsets.UTF_8);
+        resultsDir = Files.createTempDirectory("allure-results-");
+        fileSystemWriter = new FileSystemResultsWriter(resultsDir);
+        batchingWriter = new BatchingResultsWriter(resultsDir, 64, 64L * 1024 * 1024, 0, 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        batchingWriter.close();
+        try (Stream<Path> files = Files.walk(resultsDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTACHMENTS)
+    public void fileSystem() {
+        writeAttachments(fileSystemWriter);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTACHMENTS)
+    public void batching() throws InterruptedException {
+        writeAttachments(batchingWriter);
+        batchingWriter.flush(Duration.ofMinutes(1));
+    }
+
+    private void writeAttachments(AllureResultsWriter writer) {
+        for (int i = 0; i < ATTACHMENTS; i++) {
+            writer.write(UUID.randomUUID() + "-attachment.txt", new ByteArrayInputStream(attachment));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import api.StreamingExtractor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import models.Book;
+import models.Books;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import stubs.BooksPayloads;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reading a {@code /BookStore/v1/Books} catalog the way {@code extract().as(Books.class)} does (body to
+ * bytes, to String, bound as one {@link Books}) against {@link StreamingExtractor#books()}. The body is
+ * generated while it is read, so only the reader's own memory counts. For heap use run with
+ * {@code -jvmArgsAppend -Xmx64m}: streaming reads 1 million books (about 560 MB of json), extractAs
+ * runs out of memory from 100 thousand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class StreamingBooksBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"10000", "100000", "1000000"})
+    private int books;
+
+    @Benchmark
+    public long extractAs() throws IOException {
+        byte[] body = readFully(BooksPayloads.booksJsonStream(books));
+        Books catalog = MAPPER.readValue(new String(body, StandardCharsets.UTF_8), Books.class);
+        long pages = 0;
+        for (Book book : catalog.getBooks()) {
+            pages += book.getPages();
+        }
+        return pages;
+    }
+
+    @Benchmark
+    public long streaming() {
+        LongAdder pages = new LongAdder();
+        StreamingExtractor.books().forEach(BooksPayloads.booksJsonStream(books), book -> pages.add(book.getPages()));
+        return pages.sum();
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
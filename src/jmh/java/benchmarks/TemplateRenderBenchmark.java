@@ -0,0 +1,74 @@
+package benchmarks;
+
+import io.qameta.allure.attachment.AttachmentData;
+import io.qameta.allure.attachment.AttachmentRenderer;
+import io.qameta.allure.attachment.FreemarkerAttachmentRenderer;
+import io.qameta.allure.attachment.http.HttpRequestAttachment;
+import io.qameta.allure.attachment.http.HttpResponseAttachment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static filters.TemplateRenderer.templateRenderer;
+
+/**
+ * Renders per second of the request and response attachments: a new FreemarkerAttachmentRenderer per
+ * render (what AllureRestAssured does) against the cached {@link filters.TemplateRenderer}.
+ * Add {@code -prof gc} for allocation per render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+    private HttpRequestAttachment request;
+    private HttpResponseAttachment response;
+
+    @Setup
+    public void setUp() {
+        request = HttpRequestAttachment.Builder.create("Request", "https://demoqa.com/Account/v1/GenerateToken")
+                .setMethod("POST")
+                .setHeader("Content-Type", "application/json; charset=UTF-8")
+                .setBody("{ \"userName\": \"alex\", \"password\": \"W1_#zqwerty\" }")
+                .build();
+        response = HttpResponseAttachment.Builder.create("HTTP/1.1 200 OK")
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody("{\"token\":\"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9\",\"expires\":\"2021-06-05T10:00:00.000Z\","
+                        + "\"status\":\"Success\",\"result\":\"User authorized successfully.\"}")
+                .build();
+    }
+
+    private static int render(AttachmentRenderer<AttachmentData> renderer, AttachmentData data) {
+        return renderer.render(data).getContent().length();
+    }
+
+    @Benchmark
+    public int freemarkerRendererPerCall() {
+        return render(new FreemarkerAttachmentRenderer("request.ftl"), request)
+                + render(new FreemarkerAttachmentRenderer("response.ftl"), response);
+    }
+
+    @Benchmark
+    public int cachedRenderer() {
+        return render(templateRenderer("request.ftl"), request) + render(templateRenderer("response.ftl"), response);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int cachedRendererParallel() {
+        return cachedRenderer();
+    }
+}
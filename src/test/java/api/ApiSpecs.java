@@ -0,0 +1,139 @@
+package api;
+
+import config.ApiConfig;
+import filters.CoalescingFilter;
+import filters.MetricsFilter;
+import filters.RequestTimings;
+import helpers.ForkReport;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tests.TestData;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Shared REST Assured configuration backed by one pooled, keep-alive connection manager per JVM.
+ * {@link #install()} makes plain {@code given()} calls use it as well, and records them in
+ * {@link MetricsFilter} unless {@code api.metrics.enabled=false}, and coalesces identical concurrent GETs
+ * through {@link CoalescingFilter} with {@code api.coalescing.enabled=true}. The pool counters are written
+ * to {@code build/reports/http-pool.txt} by {@link PoolReport} when the test plan finishes.
+ */
+public class ApiSpecs {
+    private static final Logger LOG = LoggerFactory.getLogger(ApiSpecs.class);
+    private static final Path POOL_REPORT = ForkReport.perFork(Paths.get("build", "reports", "http-pool.txt"));
+    private static volatile boolean installed;
+
+    private ApiSpecs() {
+    }
+
+    public static void install() {
+        // filters are added once, by the holder's initializer, however many test classes start in parallel
+        RestAssured.config = InitApiSpecs.config;
+        installed = true;
+    }
+
+    /**
+     * The shared config with the API base URI, for {@code given(requestSpec())}.
+     */
+    public static RequestSpecification requestSpec() {
+        return InitRequestSpec.requestSpec;
+    }
+
+    public static PoolMetrics poolMetrics() {
+        return InitApiSpecs.connectionManager.getMetrics();
+    }
+
+    public static PooledConnectionManager newConnectionManager(ApiConfig apiConfig) {
+        return new PooledConnectionManager(apiConfig.poolMaxTotal(), apiConfig.poolMaxPerRoute(),
+                apiConfig.poolKeepAliveSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * A new {@link DefaultHttpClient} per request over the shared {@code connectionManager}: REST Assured
+     * reconfigures the client's content-encoding interceptors on every request, so one client instance can't
+     * be shared between threads. The pool keeps the connections alive, REST Assured never shuts it down.
+     * Streamed bodies are read right away into a {@link SpillingEntity}, so a connection goes back to the pool
+     * even when only the status code is checked, without holding bodies over {@code api.pool.buffer.max.bytes}
+     * in memory. Its size goes to {@link MetricsFilter#markResponseBytes(long)}.
+     */
+    public static RestAssuredConfig pooledConfig(PooledConnectionManager connectionManager, long keepAliveSeconds) {
+        int bufferMaxBytes = getConfig(ApiConfig.class).poolBufferMaxBytes();
+        return RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> {
+                    DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager);
+                    httpClient.setKeepAliveStrategy((response, context) -> {
+                        long keepAlive =
+                                DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return keepAlive > 0 ? keepAlive : TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+                    });
+                    httpClient.addRequestInterceptor((request, context) -> RequestTimings.markConnected());
+                    httpClient.addResponseInterceptor((response, context) -> RequestTimings.markFirstByte(), 0);
+                    httpClient.addResponseInterceptor((response, context) -> {
+                        HttpEntity entity = response.getEntity();
+                        if (entity != null && entity.isStreaming()) {
+                            entity = new SpillingEntity(entity, bufferMaxBytes);
+                            response.setEntity(entity);
+                        }
+                        if (entity != null) MetricsFilter.markResponseBytes(entity.getContentLength());
+                    });
+                    return httpClient;
+                }));
+    }
+
+    private static class InitApiSpecs {
+        private static final PooledConnectionManager connectionManager =
+                newConnectionManager(getConfig(ApiConfig.class));
+        private static final RestAssuredConfig config =
+                pooledConfig(connectionManager, getConfig(ApiConfig.class).poolKeepAliveSeconds());
+
+        static {
+            if (getConfig(ApiConfig.class).coalescingEnabled()) {
+                RestAssured.filters(CoalescingFilter.coalescingFilter());
+            }
+            if (getConfig(ApiConfig.class).metricsEnabled()) {
+                RestAssured.filters(MetricsFilter.metricsFilter());
+            }
+        }
+    }
+
+    private static class InitRequestSpec {
+        private static final RequestSpecification requestSpec = new RequestSpecBuilder()
+                .setConfig(InitApiSpecs.config)
+                .setBaseUri(TestData.getApiUrl())
+                .build();
+    }
+
+    /**
+     * Writes the pool counters once the test plan has finished, if the shared pool was used.
+     */
+    public static class PoolReport implements TestExecutionListener {
+
+        @Override
+        public void testPlanExecutionFinished(TestPlan testPlan) {
+            if (!installed) return;
+            try {
+                Files.createDirectories(POOL_REPORT.getParent());
+                Files.write(POOL_REPORT, (poolMetrics() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOG.warn("[HTTP POOL] Cant write {}", POOL_REPORT, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import models.AuthorisationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tests.TestData;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static filters.CustomLogFilter.customLogFilter;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+
+/**
+ * Caches GenerateToken responses per credentials. A token is fetched once, reused until
+ * {@code refreshAhead} before its {@code expires} time and then refreshed by a single thread
+ * while other callers of the same credentials wait for the result.
+ */
+public class AuthTokenProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(AuthTokenProvider.class);
+    private static final ObjectWriter BODY_WRITER = new ObjectMapper().writer();
+
+    public static final String GENERATE_TOKEN_PATH = "/Account/v1/GenerateToken";
+    private static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(1);
+    private static final Duration FALLBACK_LIFETIME = Duration.ofMinutes(5);
+
+    private final ConcurrentMap<Credentials, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final String baseUrl;
+    private final Duration refreshAhead;
+    private final Clock clock;
+
+    public AuthTokenProvider(String baseUrl, Duration refreshAhead, Clock clock) {
+        this.baseUrl = baseUrl;
+        this.refreshAhead = refreshAhead;
+        this.clock = clock;
+    }
+
+    public static AuthTokenProvider tokenProvider() {
+        return InitTokenProvider.tokenProvider;
+    }
+
+    public String getToken() {
+        return getAuthorisation().getToken();
+    }
+
+    public AuthorisationResponse getAuthorisation() {
+        return getAuthorisation(TestData.getUserLogin(), TestData.getUserPassword());
+    }
+
+    public AuthorisationResponse getAuthorisation(String login, String password) {
+        return tokens.computeIfAbsent(new Credentials(login, password), key -> new CachedToken())
+                .get(login, password);
+    }
+
+    public void invalidate(String login, String password) {
+        tokens.remove(new Credentials(login, password));
+    }
+
+    /**
+     * GenerateToken request body, serialized once by a shared writer so callers can send the bytes as they are.
+     */
+    public static byte[] tokenRequestBody(String login, String password) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("userName", login);
+        data.put("password", password);
+        try {
+            return BODY_WRITER.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private AuthorisationResponse generateToken(String login, String password) {
+        AuthorisationResponse response = given()
+                .contentType(JSON)
+                .filter(customLogFilter().withCustomTemplates())
+                .body(tokenRequestBody(login, password))
+                .when()
+                .post(baseUrl + GENERATE_TOKEN_PATH)
+                .then()
+                .statusCode(200)
+                .extract().as(AuthorisationResponse.class);
+
+        if (response.getToken() == null) {
+            throw new IllegalStateException("Token was not generated for user " + login + ": " + response.getResult());
+        }
+        return response;
+    }
+
+    private Instant expiresAt(AuthorisationResponse response, Instant fetchedAt) {
+        if (response.getExpires() != null) {
+            try {
+                return Instant.parse(response.getExpires());
+            } catch (DateTimeParseException e) {
+                LOG.warn("[AUTH TOKEN] Cant parse token expiration date, {}", response.getExpires());
+            }
+        }
+        return fetchedAt.plus(FALLBACK_LIFETIME);
+    }
+
+    private class CachedToken {
+        private volatile AuthorisationResponse response;
+        private volatile Instant expiresAt = Instant.MIN;
+
+        AuthorisationResponse get(String login, String password) {
+            AuthorisationResponse current = response;
+            if (current != null && isFresh()) {
+                return current;
+            }
+            synchronized (this) {
+                if (response != null && isFresh()) {
+                    return response;
+                }
+                Instant fetchedAt = clock.instant();
+                try {
+                    AuthorisationResponse fetched = generateToken(login, password);
+                    expiresAt = expiresAt(fetched, fetchedAt);
+                    response = fetched;
+                } catch (RuntimeException e) {
+                    if (response == null || !fetchedAt.isBefore(expiresAt)) {
+                        throw e;
+                    }
+                    LOG.warn("[AUTH TOKEN] Token refresh failed, reusing token valid until {}", expiresAt, e);
+                }
+                return response;
+            }
+        }
+
+        private boolean isFresh() {
+            return clock.instant().isBefore(expiresAt.minus(refreshAhead));
+        }
+    }
+
+    private static final class Credentials {
+        private final String login;
+        private final String password;
+
+        Credentials(String login, String password) {
+            this.login = login;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Credentials)) return false;
+            Credentials that = (Credentials) o;
+            return Objects.equals(login, that.login) && Objects.equals(password, that.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(login, password);
+        }
+    }
+
+    private static class InitTokenProvider {
+        private static final AuthTokenProvider tokenProvider =
+                new AuthTokenProvider(TestData.getApiUrl(), DEFAULT_REFRESH_AHEAD, Clock.systemUTC());
+    }
+}
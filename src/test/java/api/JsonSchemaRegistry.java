@@ -0,0 +1,139 @@
+package api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.keyword.syntax.checkers.common.PatternSyntaxChecker;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.keyword.validator.AbstractKeywordValidator;
+import com.github.fge.jsonschema.library.DraftV4Library;
+import com.github.fge.jsonschema.library.Keyword;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import helpers.PhaseTimings;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Classpath JSON schemas compiled once per JVM. {@code JsonSchemaValidator.matchesJsonSchemaInClasspath}
+ * loads and compiles the schema for every assertion; {@link #matchesCachedJsonSchemaInClasspath} is a
+ * drop-in replacement that reuses the compiled, thread-safe {@link JsonSchema}.
+ * Validation time is recorded as the "schema validation" phase of {@link PhaseTimings}.
+ * <p>
+ * {@code pattern} is checked with precompiled {@link java.util.regex.Pattern}s instead of the library's
+ * default, which evaluates every match as JavaScript and dominates validation of large lists.
+ */
+public class JsonSchemaRegistry {
+    private static final String VALIDATION_PHASE = "schema validation";
+    private static final Map<String, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private JsonSchemaRegistry() {
+    }
+
+    public static JsonSchema schema(String pathToSchemaInClasspath) {
+        return SCHEMAS.computeIfAbsent(pathToSchemaInClasspath, JsonSchemaRegistry::compile);
+    }
+
+    public static Matcher<String> matchesCachedJsonSchemaInClasspath(String pathToSchemaInClasspath) {
+        return new CachedJsonSchemaMatcher(pathToSchemaInClasspath, schema(pathToSchemaInClasspath));
+    }
+
+    private static JsonSchema compile(String path) {
+        try {
+            JsonNode schema = JsonLoader.fromResource(path.startsWith("/") ? path : "/" + path);
+            return InitSchemaFactory.factory.getJsonSchema(schema);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant load json schema " + path, e);
+        } catch (ProcessingException e) {
+            throw new IllegalArgumentException("Invalid json schema " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static class CachedJsonSchemaMatcher extends TypeSafeMatcher<String> {
+        private final String path;
+        private final JsonSchema schema;
+        private ProcessingReport report;
+
+        CachedJsonSchemaMatcher(String path, JsonSchema schema) {
+            this.path = path;
+            this.schema = schema;
+        }
+
+        @Override
+        protected boolean matchesSafely(String content) {
+            long start = System.nanoTime();
+            try {
+                report = schema.validate(JsonLoader.fromString(content));
+                return report.isSuccess();
+            } catch (IOException | ProcessingException e) {
+                throw new IllegalStateException("Cant validate json against " + path, e);
+            } finally {
+                PhaseTimings.record(VALIDATION_PHASE, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("The content to match the given JSON schema " + path + ".\n");
+            if (report != null) description.appendText(report.toString());
+        }
+    }
+
+    /**
+     * {@code pattern} keyword validator, created once per distinct pattern of a compiled schema.
+     */
+    public static class JavaPatternValidator extends AbstractKeywordValidator {
+        private final Pattern pattern;
+
+        public JavaPatternValidator(JsonNode digest) {
+            super("pattern");
+            this.pattern = Pattern.compile(digest.get(keyword).textValue());
+        }
+
+        @Override
+        public void validate(Processor<FullData, FullData> processor, ProcessingReport report,
+                             MessageBundle bundle, FullData data) throws ProcessingException {
+            String value = data.getInstance().getNode().textValue();
+            if (!pattern.matcher(value).find()) {
+                report.error(newMsg(data, bundle, "err.common.pattern.noMatch")
+                        .putArgument("regex", pattern.pattern())
+                        .putArgument("string", value));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return keyword + ": " + pattern;
+        }
+    }
+
+    private static class InitSchemaFactory {
+        // default for schemas without a draft-03/04 "$schema", e.g. booklist_response.json (draft-07)
+        private static final String LIBRARY_URI = "urn:jsonschema:draftv4-java-regex#";
+        private static final Library library = DraftV4Library.get().thaw()
+                .addKeyword(Keyword.newBuilder("pattern")
+                        .withSyntaxChecker(PatternSyntaxChecker.getInstance())
+                        .withIdentityDigester(NodeType.STRING)
+                        .withValidatorClass(JavaPatternValidator.class)
+                        .freeze())
+                .freeze();
+        private static final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
+                .setValidationConfiguration(ValidationConfiguration.newBuilder()
+                        .setDefaultLibrary(LIBRARY_URI, library)
+                        .freeze())
+                .freeze();
+    }
+}
@@ -0,0 +1,51 @@
+package api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool counters: a hit reuses an open keep-alive connection, a miss opens a new one,
+ * a wait is a lease that found the route saturated.
+ */
+public class PoolMetrics {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder leaseNanos = new LongAdder();
+    private final LongAccumulator maxLeaseNanos = new LongAccumulator(Math::max, 0);
+
+    void record(boolean hit, boolean waited, long leaseTimeNanos) {
+        (hit ? hits : misses).increment();
+        if (waited) waits.increment();
+        leaseNanos.add(leaseTimeNanos);
+        maxLeaseNanos.accumulate(leaseTimeNanos);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getWaits() {
+        return waits.sum();
+    }
+
+    public double getAverageLeaseMillis() {
+        long leases = getHits() + getMisses();
+        return leases == 0 ? 0 : leaseNanos.sum() / (double) leases / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxLeaseMillis() {
+        return maxLeaseNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, waits=%d, avgLease=%.3fms, maxLease=%.3fms",
+                getHits(), getMisses(), getWaits(), getAverageLeaseMillis(), getMaxLeaseMillis());
+    }
+}
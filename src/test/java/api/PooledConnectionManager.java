@@ -0,0 +1,51 @@
+package api;
+
+import filters.RequestTimings;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apache HttpClient 4 connection pool (the API REST Assured 4 is built on) that records
+ * {@link PoolMetrics} for every lease.
+ */
+public class PooledConnectionManager extends PoolingClientConnectionManager {
+    private final PoolMetrics metrics = new PoolMetrics();
+
+    public PooledConnectionManager(int maxTotal, int maxPerRoute, long timeToLive, TimeUnit unit) {
+        super(SchemeRegistryFactory.createDefault(), timeToLive, unit);
+        setMaxTotal(maxTotal);
+        setDefaultMaxPerRoute(maxPerRoute);
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        RequestTimings.markConnectionRequested();
+        boolean saturated = getStats(route).getLeased() >= getMaxPerRoute(route);
+        ClientConnectionRequest request = super.requestConnection(route, state);
+        return new ClientConnectionRequest() {
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                ManagedClientConnection connection = request.getConnection(timeout, unit);
+                metrics.record(connection.isOpen(), saturated, System.nanoTime() - start);
+                return connection;
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package api;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A response entity read off its connection as soon as it arrives, so the connection goes back to the pool
+ * even when a test only checks the status code. Up to {@code maxBytes} stay in memory, a larger body is
+ * written to a temp file instead and read back from there. The file is deleted once its stream is closed,
+ * or at JVM exit when the body is never read.
+ */
+class SpillingEntity extends HttpEntityWrapper {
+    private final byte[] bytes;
+    private final Path file;
+    private final long length;
+
+    SpillingEntity(HttpEntity entity, int maxBytes) throws IOException {
+        super(entity);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+        Path spill = null;
+        OutputStream out = buffer;
+        long size = 0;
+        try (InputStream in = entity.getContent()) {
+            byte[] chunk = new byte[8192];
+            for (int read; in != null && (read = in.read(chunk)) != -1; size += read) {
+                if (spill == null && size + read > maxBytes) {
+                    spill = Files.createTempFile("response-", ".body");
+                    spill.toFile().deleteOnExit();
+                    out = Files.newOutputStream(spill);
+                    buffer.writeTo(out);
+                }
+                out.write(chunk, 0, read);
+            }
+        } finally {
+            out.close();
+        }
+        this.bytes = spill == null ? buffer.toByteArray() : null;
+        this.file = spill;
+        this.length = size;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return file == null;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (file == null) return new ByteArrayInputStream(bytes);
+        return new FilterInputStream(Files.newInputStream(file)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try (InputStream in = getContent()) {
+            byte[] chunk = new byte[8192];
+            for (int read; (read = in.read(chunk)) != -1; ) out.write(chunk, 0, read);
+        }
+    }
+}
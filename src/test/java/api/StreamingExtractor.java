@@ -0,0 +1,76 @@
+package api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.ResponseBodyData;
+import models.Book;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Reads the elements of a top-level array field one at a time with a prebuilt {@link ObjectReader},
+ * so a catalog of any size is checked in constant memory, unlike {@code extract().as(Books.class)}
+ * which holds the body as a String and the whole list at once.
+ * <pre>{@code
+ * long count = books().forEach(given().get("/BookStore/v1/Books"), book -> assertThat(book.getIsbn()).isNotEmpty());
+ * }</pre>
+ */
+public class StreamingExtractor<T> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String arrayField;
+    private final ObjectReader reader;
+
+    public StreamingExtractor(String arrayField, Class<T> type) {
+        this.arrayField = arrayField;
+        this.reader = MAPPER.readerFor(type);
+    }
+
+    public static StreamingExtractor<Book> books() {
+        return InitStreamingExtractor.books;
+    }
+
+    /**
+     * @return the number of elements read
+     */
+    public long forEach(ResponseBodyData body, Consumer<? super T> action) {
+        return forEach(body.asInputStream(), action);
+    }
+
+    public long forEach(InputStream body, Consumer<? super T> action) {
+        try (JsonParser parser = reader.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a json object with \"" + arrayField + "\" array");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean found = arrayField.equals(parser.getCurrentName());
+                JsonToken value = parser.nextToken();
+                if (found && value == JsonToken.START_ARRAY) {
+                    return readElements(parser, action);
+                }
+                parser.skipChildren();
+            }
+            throw new IllegalArgumentException("No \"" + arrayField + "\" array in json");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant read \"" + arrayField + "\" array", e);
+        }
+    }
+
+    private long readElements(JsonParser parser, Consumer<? super T> action) throws IOException {
+        long count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            action.accept(reader.readValue(parser));
+            count++;
+        }
+        return count;
+    }
+
+    private static class InitStreamingExtractor {
+        private static final StreamingExtractor<Book> books = new StreamingExtractor<>("books", Book.class);
+    }
+}
@@ -0,0 +1,31 @@
+package config;
+
+import org.aeonbits.owner.Config;
+
+@Config.LoadPolicy(Config.LoadType.MERGE)
+@Config.Sources({
+        "system:properties",
+        "classpath:config/allure.properties"
+})
+public interface AllureConfig extends Config {
+
+    @Key("allure.writer.batching")
+    @DefaultValue("true")
+    boolean writerBatching();
+
+    @Key("allure.writer.batch.size")
+    @DefaultValue("64")
+    int writerBatchSize();
+
+    @Key("allure.writer.queue.bytes")
+    @DefaultValue("67108864")
+    long writerQueueBytes();
+
+    @Key("allure.writer.gzip.min.bytes")
+    @DefaultValue("0")
+    int writerGzipMinBytes();
+
+    @Key("allure.writer.dedup.max.entries")
+    @DefaultValue("10000")
+    int writerDedupMaxEntries();
+}
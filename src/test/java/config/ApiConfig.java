@@ -0,0 +1,87 @@
+package config;
+
+import org.aeonbits.owner.Config;
+
+@Config.LoadPolicy(Config.LoadType.MERGE)
+@Config.Sources({
+        "system:properties",
+        "classpath:config/api.properties"
+})
+public interface ApiConfig extends Config {
+
+    @Key("api.pool.max.total")
+    @DefaultValue("64")
+    int poolMaxTotal();
+
+    @Key("api.pool.max.per.route")
+    @DefaultValue("16")
+    int poolMaxPerRoute();
+
+    @Key("api.pool.keep.alive.seconds")
+    @DefaultValue("30")
+    long poolKeepAliveSeconds();
+
+    @Key("api.pool.buffer.max.bytes")
+    @DefaultValue("1048576")
+    int poolBufferMaxBytes();
+
+    @Key("api.log.body.capture")
+    @DefaultValue("false")
+    boolean logBodyCapture();
+
+    @Key("api.log.body.head.bytes")
+    @DefaultValue("16384")
+    int logBodyHeadBytes();
+
+    @Key("api.log.body.tail.bytes")
+    @DefaultValue("4096")
+    int logBodyTailBytes();
+
+    @Key("api.log.body.max.bytes")
+    @DefaultValue("65536")
+    int logBodyMaxBytes();
+
+    @Key("api.log.body.spill.dir")
+    @DefaultValue("build/http-bodies")
+    String logBodySpillDir();
+
+    @Key("api.metrics.enabled")
+    @DefaultValue("true")
+    boolean metricsEnabled();
+
+    @Key("api.metrics.slow.millis")
+    @DefaultValue("2000")
+    long metricsSlowMillis();
+
+    @Key("api.metrics.baseline")
+    @DefaultValue("")
+    String metricsBaseline();
+
+    @Key("api.metrics.baseline.factor")
+    @DefaultValue("1.5")
+    double metricsBaselineFactor();
+
+    @Key("api.incremental")
+    @DefaultValue("false")
+    boolean incremental();
+
+    @Key("api.incremental.force")
+    @DefaultValue("false")
+    boolean incrementalForce();
+
+    @Key("api.incremental.dir")
+    @DefaultValue("build/incremental")
+    String incrementalDir();
+
+    @Key("api.coalescing.enabled")
+    @DefaultValue("false")
+    boolean coalescingEnabled();
+
+    @Key("api.coalescing.cache.ttl.millis")
+    @DefaultValue("0")
+    long coalescingCacheTtlMillis();
+
+    @Key("api.coalescing.cache.max.bytes")
+    @DefaultValue("16777216")
+    long coalescingCacheMaxBytes();
+}
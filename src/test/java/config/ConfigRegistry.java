@@ -0,0 +1,31 @@
+package config;
+
+import org.aeonbits.owner.Config;
+import org.aeonbits.owner.ConfigFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds every {@link Config} interface once per JVM. Call {@link #reload()} after changing
+ * system properties at runtime so the next lookup picks them up.
+ */
+public class ConfigRegistry {
+    private static final Map<Class<? extends Config>, Config> CONFIGS = new ConcurrentHashMap<>();
+
+    private ConfigRegistry() {
+    }
+
+    public static <T extends Config> T getConfig(Class<T> type) {
+        return type.cast(CONFIGS.computeIfAbsent(type,
+                key -> ConfigFactory.newInstance().create(key, System.getProperties())));
+    }
+
+    public static void reload() {
+        CONFIGS.clear();
+    }
+
+    public static void reload(Class<? extends Config> type) {
+        CONFIGS.remove(type);
+    }
+}
@@ -0,0 +1,19 @@
+package config;
+
+import org.aeonbits.owner.Config;
+
+@Config.LoadPolicy(Config.LoadType.MERGE)
+@Config.Sources({
+        "system:properties",
+        "classpath:config/data.properties"
+})
+public interface DataConfig extends Config {
+
+    @Key("data.batch.size")
+    @DefaultValue("256")
+    int batchSize();
+
+    @Key("data.threads")
+    @DefaultValue("8")
+    int threads();
+}
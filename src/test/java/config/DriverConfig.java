@@ -11,18 +11,22 @@ import org.aeonbits.owner.Config;
 public interface DriverConfig extends Config {
 
     @Key("web.browser")
+    @DefaultValue("chrome")
     String webBrowser();
 
     @Key("web.browser.version")
     String webBrowserVersion();
 
     @Key("web.browser.size")
+    @DefaultValue("1920x1080")
     String webBrowserSize();
 
     @Key("web.browser.mobile.view")
+    @DefaultValue("")
     String webBrowserMobileView();
 
     @Key("web.remote.driver.url")
+    @DefaultValue("")
     String webRemoteDriverUrl();
 
     @Key("web.remote.driver.user")
@@ -32,5 +36,62 @@ public interface DriverConfig extends Config {
     String webRemoteDriverPassword();
 
     @Key("video.storage")
+    @DefaultValue("")
     String videoStorage();
+
+    @Key("video.attach.threads")
+    @DefaultValue("4")
+    int videoAttachThreads();
+
+    @Key("video.attach.max.attempts")
+    @DefaultValue("10")
+    int videoAttachMaxAttempts();
+
+    @Key("video.attach.initial.delay.millis")
+    @DefaultValue("1000")
+    long videoAttachInitialDelayMillis();
+
+    @Key("video.attach.max.delay.millis")
+    @DefaultValue("8000")
+    long videoAttachMaxDelayMillis();
+
+    @Key("web.driver.pool.size")
+    @DefaultValue("0")
+    int webDriverPoolSize();
+
+    @Key("web.driver.pool.max.reuse")
+    @DefaultValue("20")
+    int webDriverPoolMaxReuse();
+
+    @Key("web.driver.pool.idle.timeout.seconds")
+    @DefaultValue("120")
+    long webDriverPoolIdleTimeoutSeconds();
+
+    @Key("screenshot.async")
+    @DefaultValue("false")
+    boolean screenshotAsync();
+
+    @Key("screenshot.on.pass")
+    @DefaultValue("true")
+    boolean screenshotOnPass();
+
+    @Key("screenshot.scale")
+    @DefaultValue("1.0")
+    double screenshotScale();
+
+    @Key("screenshot.format")
+    @DefaultValue("png")
+    String screenshotFormat();
+
+    @Key("screenshot.jpeg.quality")
+    @DefaultValue("0.8")
+    float screenshotJpegQuality();
+
+    @Key("screenshot.encode.threads")
+    @DefaultValue("2")
+    int screenshotEncodeThreads();
+
+    @Key("screenshot.encode.queue")
+    @DefaultValue("16")
+    int screenshotEncodeQueue();
 }
@@ -0,0 +1,31 @@
+package config;
+
+import org.aeonbits.owner.Config;
+
+@Config.LoadPolicy(Config.LoadType.MERGE)
+@Config.Sources({
+        "system:properties",
+        "classpath:config/load.properties"
+})
+public interface LoadConfig extends Config {
+
+    @Key("load.rate")
+    @DefaultValue("50")
+    int ratePerSecond();
+
+    @Key("load.warmup.seconds")
+    @DefaultValue("2")
+    long warmupSeconds();
+
+    @Key("load.duration.seconds")
+    @DefaultValue("10")
+    long durationSeconds();
+
+    @Key("load.threads")
+    @DefaultValue("32")
+    int threads();
+
+    @Key("load.max.error.rate")
+    @DefaultValue("0.01")
+    double maxErrorRate();
+}
@@ -0,0 +1,23 @@
+package config;
+
+import org.aeonbits.owner.Config;
+
+@Config.LoadPolicy(Config.LoadType.MERGE)
+@Config.Sources({
+        "system:properties",
+        "classpath:config/schedule.properties"
+})
+public interface ScheduleConfig extends Config {
+
+    @Key("schedule.history.dir")
+    @DefaultValue("build/allure-results")
+    String historyDir();
+
+    @Key("shard.index")
+    @DefaultValue("1")
+    int shardIndex();
+
+    @Key("shard.total")
+    @DefaultValue("1")
+    int shardTotal();
+}
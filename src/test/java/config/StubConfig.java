@@ -0,0 +1,31 @@
+package config;
+
+import org.aeonbits.owner.Config;
+
+@Config.LoadPolicy(Config.LoadType.MERGE)
+@Config.Sources({
+        "system:properties",
+        "classpath:config/stub.properties"
+})
+public interface StubConfig extends Config {
+
+    @Key("stub.books")
+    @DefaultValue("8")
+    int books();
+
+    @Key("stub.latency.millis")
+    @DefaultValue("0")
+    long latencyMillis();
+
+    @Key("stub.latency.jitter.millis")
+    @DefaultValue("0")
+    long latencyJitterMillis();
+
+    @Key("stub.error.rate")
+    @DefaultValue("0")
+    double errorRate();
+
+    @Key("stub.seed")
+    @DefaultValue("42")
+    long seed();
+}
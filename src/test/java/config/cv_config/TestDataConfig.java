@@ -9,9 +9,11 @@ import org.aeonbits.owner.Config;
 })
 public interface TestDataConfig extends Config {
     @Key("web.url")
+    @DefaultValue("https://demoqa.com")
     String webUrl();
 
     @Key("api.url")
+    @DefaultValue("https://demoqa.com")
     String apiUrl();
 
     @Key("user.login")
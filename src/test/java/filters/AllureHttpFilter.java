@@ -0,0 +1,168 @@
+package filters;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.attachment.DefaultAttachmentProcessor;
+import io.qameta.allure.attachment.http.HttpRequestAttachment;
+import io.qameta.allure.attachment.http.HttpResponseAttachment;
+import io.qameta.allure.model.Parameter;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.internal.NameAndValue;
+import io.restassured.internal.support.Prettifier;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static filters.TemplateRenderer.templateRenderer;
+
+/**
+ * Allure request/response attachments like {@code AllureRestAssured}, configured once at construction
+ * and rendered through the cached {@link TemplateRenderer}. With a {@link BodyCapture} bodies are
+ * captured size-capped instead of being prettified in full: the response is captured from its stream and
+ * handed on backed by the capture, so a large body is never held in memory as a whole.
+ * <p>
+ * Holds no per-request state, so one instance is shared by all tests, also when they run concurrently.
+ * {@link RequestTimings} of every call are added to the running test as a parameter, e.g.
+ * {@code "HTTP POST /Account/v1/GenerateToken" = "200, connect 4 ms, first byte 83 ms, total 86 ms"}.
+ */
+public class AllureHttpFilter implements OrderedFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(AllureHttpFilter.class);
+
+    private final String requestTemplate;
+    private final String responseTemplate;
+    private final BodyCapture bodyCapture;
+
+    public AllureHttpFilter(String requestTemplate, String responseTemplate, BodyCapture bodyCapture) {
+        this.requestTemplate = requestTemplate;
+        this.responseTemplate = responseTemplate;
+        this.bodyCapture = bodyCapture;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext filterContext) {
+        Prettifier prettifier = new Prettifier();
+        DefaultAttachmentProcessor processor = new DefaultAttachmentProcessor();
+
+        HttpRequestAttachment.Builder request = HttpRequestAttachment.Builder.create("Request", requestSpec.getURI())
+                .setMethod(requestSpec.getMethod())
+                .setHeaders(toMap(requestSpec.getHeaders()))
+                .setCookies(toMap(requestSpec.getCookies()));
+        if (requestSpec.getBody() != null) {
+            request.setBody(bodyCapture == null
+                    ? prettifier.getPrettifiedBodyIfPossible(requestSpec)
+                    : requestPreview(bodyCapture.capture(requestBytes(requestSpec.getBody()))));
+        }
+        processor.addAttachment(request.build(), templateRenderer(requestTemplate));
+
+        RequestTimings timings = RequestTimings.start();
+        Response response;
+        try {
+            response = filterContext.next(requestSpec, responseSpec);
+        } finally {
+            timings.finish();
+        }
+        addTimings(requestSpec, response.getStatusCode(), timings);
+
+        HttpResponseAttachment.Builder responseAttachment = HttpResponseAttachment.Builder
+                .create(response.getStatusLine())
+                .setResponseCode(response.getStatusCode())
+                .setHeaders(toMap(response.getHeaders()));
+        if (bodyCapture == null) {
+            responseAttachment.setBody(prettifier.getPrettifiedBodyIfPossible(response, response.getBody()));
+        } else {
+            BodyCapture.CapturedBody body = bodyCapture.capture(response.asInputStream());
+            boolean attached = attachSpill("Response body", body);
+            responseAttachment.setBody(attached ? body.preview("attachment \"Response body\"") : body.preview());
+            response = withBody(response, body, attached);
+        }
+        processor.addAttachment(responseAttachment.build(), templateRenderer(responseTemplate));
+
+        return response;
+    }
+
+    private static String requestPreview(BodyCapture.CapturedBody body) {
+        if (!attachSpill("Request body", body)) return body.preview();
+        deleteSpill(body);
+        return body.preview("attachment \"Request body\"");
+    }
+
+    /**
+     * Attaches a spilled body in full, streamed from its spill file. Outside a test nothing is attached and
+     * the spill file is kept, its path named in the preview.
+     *
+     * @return whether the body was attached
+     */
+    private static boolean attachSpill(String name, BodyCapture.CapturedBody body) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        if (!body.isTruncated() || !lifecycle.getCurrentTestCase().isPresent()) return false;
+        String source = lifecycle.prepareAttachment(name, "text/plain", ".txt");
+        try (InputStream in = body.open()) {
+            lifecycle.writeAttachment(source, in);
+            return true;
+        } catch (IOException e) {
+            LOG.warn("[ALLURE HTTP] Cant attach {} from {}", name, body.getSpill(), e);
+            return false;
+        }
+    }
+
+    /**
+     * The response with its body read from the capture, as its own stream is used up. An attached spill
+     * file is deleted once the body is read.
+     */
+    private static Response withBody(Response response, BodyCapture.CapturedBody body, boolean deleteSpill) {
+        try {
+            InputStream content = deleteSpill ? body.open(StandardOpenOption.DELETE_ON_CLOSE) : body.open();
+            return new ResponseBuilder().clone(response).setBody(content).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant read response body from " + body.getSpill(), e);
+        }
+    }
+
+    private static void deleteSpill(BodyCapture.CapturedBody body) {
+        try {
+            Files.delete(body.getSpill());
+        } catch (IOException e) {
+            LOG.warn("[ALLURE HTTP] Cant delete {}", body.getSpill(), e);
+        }
+    }
+
+    private static void addTimings(FilterableRequestSpecification requestSpec, int statusCode,
+                                   RequestTimings timings) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        lifecycle.getCurrentTestCase().ifPresent(uuid -> lifecycle.updateTestCase(uuid, result ->
+                result.getParameters().add(new Parameter()
+                        .setName("HTTP " + requestSpec.getMethod() + " " + URI.create(requestSpec.getURI()).getPath())
+                        .setValue(statusCode + ", " + timings))));
+    }
+
+    private static byte[] requestBytes(Object body) {
+        return body instanceof byte[] ? (byte[]) body : String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> toMap(Iterable<? extends NameAndValue> items) {
+        Map<String, String> result = new HashMap<>();
+        items.forEach(item -> result.put(item.getName(), item.getValue()));
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,183 @@
+package filters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Reads a body once and keeps at most {@code maxBytes} of it in memory. Larger bodies keep only
+ * {@code headBytes} and {@code tailBytes} for the report and are spilled in full to a file in
+ * {@code spillDir}. Size and SHA-256 are always recorded.
+ */
+public class BodyCapture {
+    private final int headBytes;
+    private final int tailBytes;
+    private final int maxBytes;
+    private final Path spillDir;
+
+    public BodyCapture(int headBytes, int tailBytes, int maxBytes, Path spillDir) {
+        if (headBytes + tailBytes > maxBytes) {
+            throw new IllegalArgumentException("head + tail bytes must not exceed max bytes");
+        }
+        this.headBytes = headBytes;
+        this.tailBytes = tailBytes;
+        this.maxBytes = maxBytes;
+        this.spillDir = spillDir;
+    }
+
+    public CapturedBody capture(InputStream body) {
+        MessageDigest sha256 = sha256();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+        byte[] head = new byte[headBytes];
+        byte[] tail = new byte[tailBytes];
+        long size = 0;
+        Path spill = null;
+        OutputStream spillOut = null;
+
+        byte[] chunk = new byte[8192];
+        try {
+            int read;
+            while ((read = body.read(chunk)) != -1) {
+                sha256.update(chunk, 0, read);
+                if (spillOut == null && size + read > maxBytes) {
+                    Files.createDirectories(spillDir);
+                    spill = Files.createTempFile(spillDir, "body-", ".txt");
+                    spillOut = Files.newOutputStream(spill);
+                    buffer.writeTo(spillOut);
+                }
+                if (spillOut == null) {
+                    buffer.write(chunk, 0, read);
+                } else {
+                    spillOut.write(chunk, 0, read);
+                }
+                keepHead(head, size, chunk, read);
+                keepTail(tail, size, chunk, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant capture body", e);
+        } finally {
+            if (spillOut != null) {
+                try {
+                    spillOut.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cant write body to " + spill, e);
+                }
+            }
+        }
+
+        if (spill == null) {
+            return new CapturedBody(buffer.toByteArray(), null, size, hex(sha256.digest()), null);
+        }
+        return new CapturedBody(head, orderedTail(tail, size), size, hex(sha256.digest()), spill);
+    }
+
+    public CapturedBody capture(byte[] body) {
+        return capture(new ByteArrayInputStream(body));
+    }
+
+    private static void keepHead(byte[] head, long offset, byte[] chunk, int length) {
+        if (offset >= head.length) return;
+        System.arraycopy(chunk, 0, head, (int) offset, (int) Math.min(length, head.length - offset));
+    }
+
+    private void keepTail(byte[] tail, long offset, byte[] chunk, int length) {
+        if (tailBytes == 0) return;
+        int from = Math.max(0, length - tailBytes);
+        for (int i = from; i < length; i++) {
+            tail[(int) ((offset + i) % tailBytes)] = chunk[i];
+        }
+    }
+
+    private byte[] orderedTail(byte[] ring, long size) {
+        if (tailBytes == 0) return ring;
+        byte[] ordered = new byte[tailBytes];
+        int start = (int) (size % tailBytes);
+        System.arraycopy(ring, start, ordered, 0, tailBytes - start);
+        System.arraycopy(ring, 0, ordered, tailBytes - start, start);
+        return ordered;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public static class CapturedBody {
+        private final byte[] head;
+        private final byte[] tail;
+        private final long size;
+        private final String sha256;
+        private final Path spill;
+
+        CapturedBody(byte[] head, byte[] tail, long size, String sha256, Path spill) {
+            this.head = head;
+            this.tail = tail;
+            this.size = size;
+            this.sha256 = sha256;
+            this.spill = spill;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public Path getSpill() {
+            return spill;
+        }
+
+        public boolean isTruncated() {
+            return spill != null;
+        }
+
+        /**
+         * The body in full: from memory, or from the spill file opened with {@code options}.
+         */
+        public InputStream open(OpenOption... options) throws IOException {
+            return spill == null ? new ByteArrayInputStream(head) : Files.newInputStream(spill, options);
+        }
+
+        public String preview() {
+            return preview(spill == null ? null : spill.toAbsolutePath().toString());
+        }
+
+        /**
+         * @param fullBody where the full body of a truncated capture can be found, e.g. an attachment name
+         */
+        public String preview(String fullBody) {
+            StringBuilder preview = new StringBuilder()
+                    .append("[").append(size).append(" bytes, sha256 ").append(sha256).append("]\n");
+            preview.append(new String(head, StandardCharsets.UTF_8));
+            if (isTruncated()) {
+                preview.append("\n\n... ").append(size - head.length - tail.length)
+                        .append(" bytes omitted, full body: ").append(fullBody).append(" ...\n\n")
+                        .append(new String(tail, StandardCharsets.UTF_8));
+            }
+            return preview.toString();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package filters;
+
+import config.ApiConfig;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Single flight for idempotent requests ({@code GET}, {@code HEAD}): while one request is in flight, identical
+ * ones (same method, URI, headers and cookies) wait for its response instead of going upstream. With
+ * {@code api.coalescing.cache.ttl.millis > 0} the last response of each request is also served for that long,
+ * up to {@code api.coalescing.cache.max.bytes} of bodies, least recently used evicted first; only 2xx responses
+ * are cached. A waiting caller gives up after its own socket timeout ({@code http.socket.timeout}), if set.
+ * <p>
+ * Every caller gets its own copy of the response, and the filters ordered after this one ({@link AllureHttpFilter},
+ * {@code AllureRestAssured}, {@link MetricsFilter}) still run for every caller, so each test keeps its own
+ * attachments and metrics; for a coalesced caller they see the time spent waiting for the shared response.
+ */
+public class CoalescingFilter implements OrderedFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingFilter.class);
+    private static final String SEND_REQUEST_FILTER = "io.restassured.internal.filter.SendRequestFilter";
+    private static final String SOCKET_TIMEOUT = "http.socket.timeout";
+
+    private final long ttlNanos;
+    private final long maxCacheBytes;
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, SharedResponse> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+    private final LongAdder upstream = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    public CoalescingFilter(long ttlMillis, long maxCacheBytes) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    public static CoalescingFilter coalescingFilter() {
+        return InitCoalescingFilter.coalescingFilter;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext filterContext) {
+        String method = requestSpec.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) return filterContext.next(requestSpec, responseSpec);
+
+        String key = key(requestSpec);
+        SharedResponse cached = cached(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return remainingChain(requestSpec, filterContext, () -> cached).next(requestSpec, responseSpec);
+        }
+        CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            long timeoutMillis = socketTimeoutMillis(requestSpec);
+            return remainingChain(requestSpec, filterContext, () -> await(leader, timeoutMillis))
+                    .next(requestSpec, responseSpec);
+        }
+
+        upstream.increment();
+        try {
+            Response response = filterContext.next(requestSpec, responseSpec);
+            SharedResponse shared = new SharedResponse(response, response.asByteArray(), System.nanoTime());
+            flight.complete(shared);
+            // an error is not served to later callers, they may well get through
+            int status = response.getStatusCode();
+            if (ttlNanos > 0 && status >= 200 && status < 300) store(key, shared);
+            return shared.copy();
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // ahead of the Allure and metrics filters, which are all ordered last
+        return OrderedFilter.LOWEST_PRECEDENCE - 1;
+    }
+
+    public long getUpstreamRequests() {
+        return upstream.sum();
+    }
+
+    public long getCoalescedRequests() {
+        return coalesced.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public String summary() {
+        long saved = coalesced.sum() + cacheHits.sum();
+        long total = upstream.sum() + saved;
+        return String.format("%d requests, %d upstream, %d saved (%d coalesced, %d from cache, %.1f%%)",
+                total, upstream.sum(), saved, coalesced.sum(), cacheHits.sum(), total == 0 ? 0 : 100.0 * saved / total);
+    }
+
+    private synchronized SharedResponse cached(String key) {
+        SharedResponse cached = cache.get(key);
+        if (cached == null || System.nanoTime() - cached.receivedNanos < ttlNanos) return cached;
+        cache.remove(key);
+        cacheBytes -= cached.body.length;
+        return null;
+    }
+
+    private synchronized void store(String key, SharedResponse response) {
+        if (response.body.length > maxCacheBytes) return;
+        SharedResponse replaced = cache.put(key, response);
+        if (replaced != null) cacheBytes -= replaced.body.length;
+        cacheBytes += response.body.length;
+        for (Iterator<SharedResponse> eldest = cache.values().iterator(); cacheBytes > maxCacheBytes; ) {
+            cacheBytes -= eldest.next().body.length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * @param timeoutMillis the caller's socket timeout, {@code 0} waits as long as the leading request takes
+     */
+    private static SharedResponse await(CompletableFuture<SharedResponse> leader, long timeoutMillis) {
+        try {
+            return timeoutMillis > 0 ? leader.get(timeoutMillis, TimeUnit.MILLISECONDS) : leader.get();
+        } catch (TimeoutException e) {
+            throw new UncheckedIOException(new SocketTimeoutException(
+                    "No response to the coalesced request within " + timeoutMillis + " ms"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a coalesced request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static long socketTimeoutMillis(FilterableRequestSpecification requestSpec) {
+        if (requestSpec.getConfig() == null) return 0;
+        Object timeout = requestSpec.getConfig().getHttpClientConfig().params().get(SOCKET_TIMEOUT);
+        return timeout instanceof Number ? ((Number) timeout).longValue() : 0;
+    }
+
+    private static String key(FilterableRequestSpecification requestSpec) {
+        StringBuilder key = new StringBuilder(requestSpec.getMethod()).append(' ').append(requestSpec.getURI());
+        TreeSet<String> headers = new TreeSet<>();
+        for (Header header : requestSpec.getHeaders()) headers.add(header.getName().toLowerCase() + ": " + header.getValue());
+        headers.forEach(header -> key.append('\n').append(header));
+        requestSpec.getCookies().forEach(cookie -> key.append("\ncookie: ").append(cookie.getName())
+                .append('=').append(cookie.getValue()));
+        return key.toString();
+    }
+
+    /**
+     * The filters REST Assured would run after this one, in the same (stable) order, ending in a copy of the
+     * shared response instead of a request.
+     */
+    private FilterContext remainingChain(FilterableRequestSpecification requestSpec, FilterContext filterContext,
+                                         SharedResponseSource source) {
+        List<Filter> filters = new ArrayList<>(requestSpec.getDefinedFilters());
+        filters.removeIf(filter -> SEND_REQUEST_FILTER.equals(filter.getClass().getName()));
+        filters.sort(Comparator.comparingInt(filter -> filter instanceof OrderedFilter
+                ? ((OrderedFilter) filter).getOrder() : OrderedFilter.DEFAULT_PRECEDENCE));
+        int self = 0;
+        while (self < filters.size() && filters.get(self) != this) self++;
+        return new CopyingFilterContext(filters.subList(Math.min(self + 1, filters.size()), filters.size()).iterator(),
+                filterContext, source);
+    }
+
+    private interface SharedResponseSource {
+        SharedResponse get();
+    }
+
+    private static class SharedResponse {
+        private final Response response;
+        private final byte[] body;
+        private final long receivedNanos;
+
+        SharedResponse(Response response, byte[] body, long receivedNanos) {
+            this.response = response;
+            this.body = body;
+            this.receivedNanos = receivedNanos;
+        }
+
+        Response copy() {
+            return new ResponseBuilder().clone(response).setBody(body).build();
+        }
+    }
+
+    private static class CopyingFilterContext implements FilterContext {
+        private final Iterator<Filter> filters;
+        private final FilterContext delegate;
+        private final SharedResponseSource source;
+
+        CopyingFilterContext(Iterator<Filter> filters, FilterContext delegate, SharedResponseSource source) {
+            this.filters = filters;
+            this.delegate = delegate;
+            this.source = source;
+        }
+
+        @Override
+        public Response next(FilterableRequestSpecification request, FilterableResponseSpecification response) {
+            if (filters.hasNext()) return filters.next().filter(request, response, this);
+            return source.get().copy();
+        }
+
+        @Override
+        public Response send(RequestSender requestSender) {
+            return delegate.send(requestSender);
+        }
+
+        @Override
+        public void setValue(String name, Object value) {
+            delegate.setValue(name, value);
+        }
+
+        @Override
+        public <T> T getValue(String name) {
+            return delegate.getValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name) {
+            return delegate.hasValue(name);
+        }
+    }
+
+    private static class InitCoalescingFilter {
+        private static final ApiConfig config = getConfig(ApiConfig.class);
+        private static final CoalescingFilter coalescingFilter =
+                new CoalescingFilter(config.coalescingCacheTtlMillis(), config.coalescingCacheMaxBytes());
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    LOG.info("[COALESCING] {}", coalescingFilter.summary())));
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package filters;
 
-import io.qameta.allure.restassured.AllureRestAssured;
+import config.ApiConfig;
+import io.restassured.filter.OrderedFilter;
 
-public class CustomLogFilter {
+import java.nio.file.Paths;
+
+import static config.ConfigRegistry.getConfig;
 
-    private static final AllureRestAssured FILTER = new AllureRestAssured();
+public class CustomLogFilter {
 
     private CustomLogFilter() {
     }
@@ -13,14 +16,21 @@ public class CustomLogFilter {
         return InitLogFilter.logFilter;
     }
 
-    public AllureRestAssured withCustomTemplates() {
-        FILTER.setRequestTemplate("request.ftl");
-        FILTER.setResponseTemplate("response.ftl");
-        return FILTER;
+    public OrderedFilter withCustomTemplates() {
+        return getConfig(ApiConfig.class).logBodyCapture() ? withCappedBodies() : InitLogFilter.templatesFilter;
+    }
 
+    public OrderedFilter withCappedBodies() {
+        return InitLogFilter.cappedFilter;
     }
 
     private static class InitLogFilter {
         private static final CustomLogFilter logFilter = new CustomLogFilter();
+        private static final ApiConfig config = getConfig(ApiConfig.class);
+        private static final AllureHttpFilter templatesFilter =
+                new AllureHttpFilter("request.ftl", "response.ftl", null);
+        private static final AllureHttpFilter cappedFilter = new AllureHttpFilter("request.ftl", "response.ftl",
+                new BodyCapture(config.logBodyHeadBytes(), config.logBodyTailBytes(), config.logBodyMaxBytes(),
+                        Paths.get(config.logBodySpillDir())));
     }
 }
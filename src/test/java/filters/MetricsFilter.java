@@ -0,0 +1,267 @@
+package filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.ApiConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Records latency, status codes and payload sizes of every request per endpoint
+ * ({@code METHOD /path/{template}}), and the request count and HTTP time of every test that
+ * {@link helpers.MetricsExtension} reports. Requests slower than {@code api.metrics.baseline.factor}
+ * times the endpoint's p95 in the {@code api.metrics.baseline} file of an earlier run, or without a
+ * baseline slower than {@code api.metrics.slow.millis}, are listed as slow.
+ * <p>
+ * {@link #writeReport(Path)} writes it all as one json document, e.g. {@code http-metrics.json} in the
+ * Allure results, so runs can be compared over time.
+ */
+public class MetricsFilter implements OrderedFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsFilter.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int MAX_SLOW_REQUESTS = 1000;
+    private static final ThreadLocal<TestMetrics> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> RESPONSE_BYTES = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    private final long slowMicros;
+    private final double baselineFactor;
+    private final Map<String, Long> baselineP95Micros;
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, TestMetrics> tests = new ConcurrentHashMap<>();
+    private final Queue<Map<String, Object>> slowRequests = new ConcurrentLinkedQueue<>();
+    private final LongAdder slowCount = new LongAdder();
+
+    public MetricsFilter(long slowMillis, double baselineFactor, Map<String, Long> baselineP95Micros) {
+        this.slowMicros = TimeUnit.MILLISECONDS.toMicros(slowMillis);
+        this.baselineFactor = baselineFactor;
+        this.baselineP95Micros = baselineP95Micros;
+    }
+
+    public static MetricsFilter metricsFilter() {
+        return InitMetricsFilter.metricsFilter;
+    }
+
+    public void testStarted(String testName) {
+        TestMetrics test = tests.computeIfAbsent(testName, TestMetrics::new);
+        test.startedNanos = System.nanoTime();
+        CURRENT_TEST.set(test);
+    }
+
+    public void testFinished() {
+        TestMetrics test = CURRENT_TEST.get();
+        if (test != null) {
+            test.durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - test.startedNanos);
+            CURRENT_TEST.remove();
+        }
+    }
+
+    /**
+     * Called by the pooled HttpClients with the size of the response body they received (see
+     * {@code ApiSpecs.pooledConfig}), so the body itself is never read here.
+     */
+    public static void markResponseBytes(long bytes) {
+        RESPONSE_BYTES.get()[0] = bytes;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext filterContext) {
+        String endpoint = endpoint(requestSpec);
+        EndpointMetrics metrics = endpoints.computeIfAbsent(endpoint, key -> new EndpointMetrics());
+        long[] marked = RESPONSE_BYTES.get();
+        marked[0] = -1;
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = filterContext.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            metrics.failures.increment();
+            throw e;
+        }
+        long micros = Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+
+        metrics.latency.recordValue(micros);
+        metrics.statusCodes.computeIfAbsent(response.getStatusCode(), key -> new LongAdder()).increment();
+        metrics.requestBytes.add(requestBytes(requestSpec.getBody()));
+        long responseBytes = responseBytes(response, marked[0]);
+        metrics.responseBytes.add(responseBytes);
+        metrics.maxResponseBytes.accumulate(responseBytes);
+
+        TestMetrics test = CURRENT_TEST.get();
+        if (test != null) {
+            test.requests.increment();
+            test.httpMicros.add(micros);
+        }
+        Long baseline = baselineP95Micros.get(endpoint);
+        long limit = baseline == null ? slowMicros : (long) (baseline * baselineFactor);
+        if (micros > limit) slowRequest(endpoint, micros, limit, test);
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        return Integer.MAX_VALUE;
+    }
+
+    public void writeReport(Path file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        Map<String, Object> endpointsReport = new TreeMap<>();
+        endpoints.forEach((endpoint, metrics) -> endpointsReport.put(endpoint, metrics.toReport()));
+        report.put("endpoints", endpointsReport);
+        Map<String, Object> testsReport = new TreeMap<>();
+        tests.forEach((name, test) -> testsReport.put(name, test.toReport()));
+        report.put("tests", testsReport);
+        report.put("slowRequestCount", slowCount.sum());
+        report.put("slowRequests", new ArrayList<>(slowRequests));
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    private void slowRequest(String endpoint, long micros, long limitMicros, TestMetrics test) {
+        slowCount.increment();
+        LOG.warn("[HTTP METRICS] Slow request {} in {}: {} ms, limit {} ms", endpoint,
+                test == null ? "-" : test.name, micros / 1000, limitMicros / 1000);
+        if (slowCount.sum() > MAX_SLOW_REQUESTS) return;
+        Map<String, Object> slow = new LinkedHashMap<>();
+        slow.put("endpoint", endpoint);
+        slow.put("test", test == null ? null : test.name);
+        slow.put("millis", micros / 1000.0);
+        slow.put("limitMillis", limitMicros / 1000.0);
+        slowRequests.add(slow);
+    }
+
+    private static String endpoint(FilterableRequestSpecification requestSpec) {
+        String path = requestSpec.getUserDefinedPath();
+        if (path == null || path.isEmpty() || path.contains("://")) {
+            path = URI.create(requestSpec.getURI()).getPath();
+        }
+        int query = path.indexOf('?');
+        return requestSpec.getMethod() + " " + (query < 0 ? path : path.substring(0, query));
+    }
+
+    private static long requestBytes(Object body) {
+        if (body == null) return 0;
+        if (body instanceof byte[]) return ((byte[]) body).length;
+        return String.valueOf(body).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * The size the HttpClient marked, otherwise {@code Content-Length}, otherwise 0.
+     */
+    private static long responseBytes(Response response, long marked) {
+        if (marked >= 0) return marked;
+        String contentLength = response.getHeader("Content-Length");
+        if (contentLength == null) return 0;
+        try {
+            return Math.max(0, Long.parseLong(contentLength.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * p95 in microseconds per endpoint from an earlier {@link #writeReport(Path)} file.
+     */
+    static Map<String, Long> readBaseline(String file) {
+        if (file.isEmpty()) return Collections.emptyMap();
+        try {
+            Map<String, Long> baseline = new HashMap<>();
+            JsonNode endpoints = MAPPER.readTree(Paths.get(file).toFile()).path("endpoints");
+            endpoints.fieldNames().forEachRemaining(endpoint -> baseline.put(endpoint,
+                    (long) (endpoints.get(endpoint).path("p95Millis").asDouble() * 1000)));
+            return baseline;
+        } catch (IOException e) {
+            LOG.warn("[HTTP METRICS] Cant read baseline {}, using api.metrics.slow.millis", file, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static class EndpointMetrics {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAccumulator maxResponseBytes = new LongAccumulator(Math::max, 0);
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("count", latency.getTotalCount());
+            report.put("failures", failures.sum());
+            Map<String, Long> codes = new TreeMap<>();
+            statusCodes.forEach((code, count) -> codes.put(String.valueOf(code), count.sum()));
+            report.put("statusCodes", codes);
+            report.put("p50Millis", millis(latency, 50));
+            report.put("p95Millis", millis(latency, 95));
+            report.put("p99Millis", millis(latency, 99));
+            report.put("maxMillis", latency.getMaxValue() / 1000.0);
+            report.put("requestBytes", requestBytes.sum());
+            report.put("responseBytes", responseBytes.sum());
+            report.put("maxResponseBytes", maxResponseBytes.get());
+            return report;
+        }
+    }
+
+    private static class TestMetrics {
+        private final String name;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder httpMicros = new LongAdder();
+        private volatile long startedNanos;
+        private volatile long durationMicros;
+
+        TestMetrics(String name) {
+            this.name = name;
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("durationMillis", durationMicros / 1000.0);
+            report.put("requests", requests.sum());
+            report.put("httpMillis", httpMicros.sum() / 1000.0);
+            return report;
+        }
+    }
+
+    private static class InitMetricsFilter {
+        private static final ApiConfig config = getConfig(ApiConfig.class);
+        private static final MetricsFilter metricsFilter = new MetricsFilter(config.metricsSlowMillis(),
+                config.metricsBaselineFactor(), readBaseline(config.metricsBaseline()));
+    }
+}
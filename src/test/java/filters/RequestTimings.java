@@ -0,0 +1,92 @@
+package filters;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of one HTTP call, kept per thread while the call runs. The filter starts and finishes them,
+ * the pooled HttpClients mark the phases in between (see {@code ApiSpecs.pooledConfig}); without
+ * them only the total time is known.
+ * <ul>
+ *     <li>connect - from asking the pool for a connection until the request is about to be sent:
+ *     pool lease, DNS, TCP and TLS</li>
+ *     <li>first byte - until the response status line and headers are read</li>
+ *     <li>total - until the response body is read</li>
+ * </ul>
+ */
+public class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final RequestTimings outer;
+    private final long startNanos = System.nanoTime();
+    private long connectionRequestedNanos;
+    private long connectedNanos;
+    private long firstByteNanos;
+    private long endNanos;
+
+    private RequestTimings(RequestTimings outer) {
+        this.outer = outer;
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings(CURRENT.get());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void markConnectionRequested() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.connectionRequestedNanos == 0) {
+            timings.connectionRequestedNanos = System.nanoTime();
+        }
+    }
+
+    public static void markConnected() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.connectedNanos == 0) timings.connectedNanos = System.nanoTime();
+    }
+
+    public static void markFirstByte() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.firstByteNanos == 0) timings.firstByteNanos = System.nanoTime();
+    }
+
+    public RequestTimings finish() {
+        endNanos = System.nanoTime();
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+        return this;
+    }
+
+    /**
+     * @return milliseconds, or -1 if the phase was not marked
+     */
+    public long getConnectMillis() {
+        if (connectedNanos == 0) return -1;
+        return millis(connectedNanos - (connectionRequestedNanos == 0 ? startNanos : connectionRequestedNanos));
+    }
+
+    public long getFirstByteMillis() {
+        return firstByteNanos == 0 || connectedNanos == 0 ? -1 : millis(firstByteNanos - connectedNanos);
+    }
+
+    public long getTotalMillis() {
+        return millis(endNanos - startNanos);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        if (connectedNanos != 0) result.append("connect ").append(getConnectMillis()).append(" ms, ");
+        if (firstByteNanos != 0 && connectedNanos != 0) {
+            result.append("first byte ").append(getFirstByteMillis()).append(" ms, ");
+        }
+        return result.append("total ").append(getTotalMillis()).append(" ms").toString();
+    }
+}
@@ -0,0 +1,67 @@
+package filters;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+import io.qameta.allure.attachment.AttachmentContent;
+import io.qameta.allure.attachment.AttachmentData;
+import io.qameta.allure.attachment.AttachmentRenderException;
+import io.qameta.allure.attachment.AttachmentRenderer;
+import io.qameta.allure.attachment.DefaultAttachmentContent;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders {@code tpl/*.ftl} HTTP attachments from templates that are parsed once per JVM, into a
+ * per-thread buffer that is reused between renders. Replaces {@code FreemarkerAttachmentRenderer},
+ * which builds a new FreeMarker configuration and template cache for every attachment.
+ */
+public class TemplateRenderer implements AttachmentRenderer<AttachmentData> {
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+    private static final Configuration CONFIGURATION = configuration();
+    private static final Map<String, TemplateRenderer> RENDERERS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<StringWriter> BUFFER = ThreadLocal.withInitial(() -> new StringWriter(8192));
+
+    private final Template template;
+
+    private TemplateRenderer(String templateName) {
+        try {
+            this.template = CONFIGURATION.getTemplate(templateName);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cant load attachment template " + templateName, e);
+        }
+    }
+
+    public static TemplateRenderer templateRenderer(String templateName) {
+        return RENDERERS.computeIfAbsent(templateName, TemplateRenderer::new);
+    }
+
+    @Override
+    public AttachmentContent render(AttachmentData data) {
+        StringWriter writer = BUFFER.get();
+        writer.getBuffer().setLength(0);
+        try {
+            template.process(Collections.singletonMap("data", data), writer);
+            return new DefaultAttachmentContent(writer.toString(), "text/html", ".html");
+        } catch (TemplateException | IOException e) {
+            throw new AttachmentRenderException("Could't render http attachment file", e);
+        } finally {
+            if (writer.getBuffer().capacity() > MAX_RETAINED_BUFFER) BUFFER.remove();
+        }
+    }
+
+    private static Configuration configuration() {
+        Configuration configuration = new Configuration(Configuration.VERSION_2_3_23);
+        configuration.setLocalizedLookup(false);
+        configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(false);
+        configuration.setClassLoaderForTemplateLoading(TemplateRenderer.class.getClassLoader(), "tpl");
+        return configuration;
+    }
+}
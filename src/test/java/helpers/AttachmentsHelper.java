@@ -1,21 +1,20 @@
 package helpers;
 
+import config.DriverConfig;
 import io.qameta.allure.Attachment;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 
-import static com.codeborne.selenide.Selenide.sleep;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
-import static io.qameta.allure.Allure.addAttachment;
+import static config.ConfigRegistry.getConfig;
+import static helpers.ScreenshotPipeline.screenshots;
+import static helpers.VideoAttachmentQueue.videoAttachments;
 
 
 public class AttachmentsHelper {
@@ -32,6 +31,24 @@ public class AttachmentsHelper {
         return ((TakesScreenshot) getWebDriver()).getScreenshotAs(OutputType.BYTES);
     }
 
+    /**
+     * Screenshot at the end of a test as {@code screenshot.*} in {@link DriverConfig} asks: skipped for
+     * passed tests with {@code screenshot.on.pass=false}, encoded by {@link ScreenshotPipeline} with
+     * {@code screenshot.async=true}.
+     */
+    public static void attachLastScreenshot(String attachName) {
+        DriverConfig config = getConfig(DriverConfig.class);
+        if (!config.screenshotOnPass() && !ScreenshotPipeline.lastTestFailed()) return;
+        if (!config.screenshotAsync()) {
+            PhaseTimings.measure("screenshot capture", () -> attachScreenshot(attachName));
+            return;
+        }
+        long start = System.nanoTime();
+        byte[] png = ((TakesScreenshot) getWebDriver()).getScreenshotAs(OutputType.BYTES);
+        PhaseTimings.record("screenshot capture", System.nanoTime() - start);
+        screenshots().attach(attachName, png);
+    }
+
     @Attachment(value = "Page source", type = "text/html")
     public static byte[] attachPageSource() {
         return getWebDriver().getPageSource().getBytes(StandardCharsets.UTF_8);
@@ -40,21 +57,7 @@ public class AttachmentsHelper {
     public static void attachVideo(String sessionId) {
         URL videoUrl = getVideoUrl(sessionId);
         if (videoUrl != null) {
-            InputStream videoInputStream = null;
-            sleep(1000);
-
-            for (int i = 0; i < 10; i++) {
-                try {
-                    videoInputStream = videoUrl.openStream();
-                    break;
-                } catch (FileNotFoundException e) {
-                    sleep(1000);
-                } catch (IOException e) {
-                    LOG.warn("[ALLURE VIDEO ATTACHMENT ERROR] Cant attach allure video, {}", videoUrl);
-                    e.printStackTrace();
-                }
-            }
-            addAttachment("Video", "video/mp4", videoInputStream, "mp4");
+            videoAttachments().attach(videoUrl);
         }
     }
 
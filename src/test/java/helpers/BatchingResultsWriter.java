@@ -0,0 +1,538 @@
+package helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.AllureConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriteException;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.Allure2ModelJackson;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import io.qameta.allure.model.WithAttachments;
+import io.qameta.allure.model.WithSteps;
+import io.qameta.allure.util.PropertiesUtils;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * {@link AllureResultsWriter} that takes results and attachments off the test thread: they are queued
+ * and one writer thread writes them in batches through NIO channels, creating the results directory
+ * once instead of per file. Attachments larger than 1 MB are still streamed to disk by the caller.
+ * A result referencing an attachment announced with {@link #expect(String)} (videos downloaded in the
+ * background) is held back until that attachment is written or replaced, e.g. by a note why it is missing.
+ * <p>
+ * Attachments with the same content and extension as an earlier one are not written again: results,
+ * their steps and the fixtures in containers referencing them point to the first copy. The index of
+ * content hashes keeps the last {@code allure.writer.dedup.max.entries} attachments, {@code 0} turns
+ * deduplication off. With {@code allure.writer.gzip.min.bytes} set, text attachments of at least that
+ * size are stored gzipped as {@code <source>.gz}. Written and saved bytes are reported in
+ * {@code build/reports/allure-results-size.txt}.
+ * <p>
+ * {@link Install} makes it the writer of {@link Allure#getLifecycle()} unless
+ * {@code allure.writer.batching=false}. A shutdown hook writes everything still queued.
+ */
+public class BatchingResultsWriter implements AllureResultsWriter, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingResultsWriter.class);
+    private static final int MAX_QUEUED_ATTACHMENT = 1024 * 1024;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Path SIZE_REPORT =
+            ForkReport.perFork(Paths.get("build", "reports", "allure-results-size.txt"));
+    private static final String GZIP_TYPE = "application/gzip";
+    private static final Set<String> TEXT_EXTENSIONS = new HashSet<>(Arrays.asList(
+            ".txt", ".html", ".htm", ".json", ".xml", ".csv", ".log", ".hgrm"));
+
+    private final Path resultsDir;
+    private final int batchSize;
+    private final int gzipMinBytes;
+    private final int queueKilobytes;
+    private final ObjectMapper mapper = Allure2ModelJackson.createMapper();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore queueSpace;
+    private final Map<String, String> contentIndex;
+    private final Map<String, Attachment> renames = new ConcurrentHashMap<>();
+    private final Set<String> lateAttachments = ConcurrentHashMap.newKeySet();
+    private final Set<String> expectedAttachments = new HashSet<>();
+    private final Map<String, Object> heldResults = new HashMap<>();
+    private final Map<String, Attachment> replacedAttachments = new HashMap<>();
+    private final AtomicLong resultBytes = new AtomicLong();
+    private final AtomicLong attachmentBytes = new AtomicLong();
+    private final AtomicLong attachmentWrittenBytes = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong duplicateBytes = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public BatchingResultsWriter(Path resultsDir, int batchSize, long queueBytes, int gzipMinBytes,
+                                 int dedupMaxEntries) {
+        this.resultsDir = resultsDir;
+        this.contentIndex = dedupMaxEntries > 0 ? lruIndex(dedupMaxEntries) : null;
+        this.batchSize = batchSize;
+        this.gzipMinBytes = gzipMinBytes;
+        this.queueKilobytes = (int) Math.max(1, Math.min(Integer.MAX_VALUE, queueBytes / 1024));
+        this.queueSpace = new Semaphore(queueKilobytes);
+        this.writerThread = new Thread(this::writeQueued, "allure-results-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public static BatchingResultsWriter batchingResultsWriter() {
+        return InitBatchingResultsWriter.batchingResultsWriter;
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        if (held(testResult)) return;
+        String uuid = testResult.getUuid() == null ? UUID.randomUUID().toString() : testResult.getUuid();
+        enqueue(new Pending(uuid + "-result.json", testResult, null, false));
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        if (held(testResultContainer)) return;
+        String uuid = testResultContainer.getUuid() == null
+                ? UUID.randomUUID().toString() : testResultContainer.getUuid();
+        enqueue(new Pending(uuid + "-container.json", testResultContainer, null, false));
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        try (InputStream body = attachment) {
+            byte[] head = readAtMost(body, MAX_QUEUED_ATTACHMENT + 1);
+            if (head.length > MAX_QUEUED_ATTACHMENT) {
+                writeStreaming(source, head, body);
+                return;
+            }
+            boolean gzip = gzipMinBytes > 0 && head.length >= gzipMinBytes && isText(source);
+            enqueue(new Pending(source, null, head, gzip));
+        } catch (IOException e) {
+            throw new AllureResultsWriteException("Could not write Allure attachment " + source, e);
+        }
+    }
+
+    /**
+     * Holds back the result or container referencing {@code source}, an attachment written in the background,
+     * until {@link #attached(String)} or {@link #notAttached(String, String, String)} is called for it: a
+     * written result can't drop an attachment that never arrives. Attachments of {@code @BeforeEach} and
+     * {@code @AfterEach} fixtures are referenced by containers.
+     */
+    public void expect(String source) {
+        synchronized (heldResults) {
+            expectedAttachments.add(source);
+        }
+    }
+
+    public void attached(String source) {
+        Object result;
+        synchronized (heldResults) {
+            expectedAttachments.remove(source);
+            result = heldResults.remove(source);
+        }
+        if (result != null) writeResult(result);
+    }
+
+    /**
+     * Replaces the expected attachment in its result with a text attachment {@code name} holding {@code message}.
+     */
+    public void notAttached(String source, String name, String message) {
+        String textSource = UUID.randomUUID() + "-attachment.txt";
+        write(textSource, new ByteArrayInputStream(message.getBytes(StandardCharsets.UTF_8)));
+        attachedInstead(source, new Attachment().setName(name).setSource(textSource).setType("text/plain"));
+    }
+
+    /**
+     * Replaces the expected attachment in its result with {@code replacement}, already written.
+     */
+    public void attachedInstead(String source, Attachment replacement) {
+        Object result;
+        synchronized (heldResults) {
+            expectedAttachments.remove(source);
+            result = heldResults.remove(source);
+            // the result is not written yet, writing it replaces the attachment
+            if (result == null) replacedAttachments.put(source, replacement);
+        }
+        if (result != null) {
+            replace(result, source, replacement);
+            writeResult(result);
+        }
+    }
+
+    /**
+     * Waits until everything queued so far is written.
+     */
+    public boolean flush(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (left <= 0) return false;
+                pending.wait(left);
+            }
+        }
+        return true;
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        List<Object> held;
+        synchronized (heldResults) {
+            // attachments still not there: write their results as they are
+            held = new ArrayList<>(heldResults.values());
+            heldResults.clear();
+            expectedAttachments.clear();
+            replacedAttachments.clear();
+        }
+        held.forEach(this::writeResult);
+        closed = true;
+        try {
+            writerThread.join(CLOSE_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // whatever the writer thread did not get to
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) writeBatch(rest);
+        if (failures.get() > 0) LOG.warn("[ALLURE RESULTS WRITER ERROR] {} files were not written", failures.get());
+        writeSizeReport();
+    }
+
+    public String sizeSummary() {
+        long gzipSaved = attachmentBytes.get() - duplicateBytes.get() - attachmentWrittenBytes.get();
+        return String.format("results %d KB, attachments %d KB: %d duplicates (%d KB) not written, gzip saved %d KB;"
+                        + " upload %d KB instead of %d KB",
+                resultBytes.get() / 1024, attachmentBytes.get() / 1024, duplicates.get(), duplicateBytes.get() / 1024,
+                gzipSaved / 1024, (resultBytes.get() + attachmentWrittenBytes.get()) / 1024,
+                (resultBytes.get() + attachmentBytes.get()) / 1024);
+    }
+
+    /**
+     * Applies the replacements waiting for {@code result}, then holds it back if it references an attachment
+     * that is still expected.
+     */
+    private boolean held(Object result) {
+        synchronized (heldResults) {
+            if (expectedAttachments.isEmpty() && replacedAttachments.isEmpty()) return false;
+            for (Attachment attachment : attachments(result, new ArrayList<>())) {
+                String source = attachment.getSource();
+                Attachment replacement = replacedAttachments.remove(source);
+                if (replacement != null) {
+                    replace(result, source, replacement);
+                } else if (expectedAttachments.contains(source)) {
+                    heldResults.put(source, result);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void writeResult(Object result) {
+        if (result instanceof TestResultContainer) {
+            write((TestResultContainer) result);
+        } else {
+            write((TestResult) result);
+        }
+    }
+
+    private void enqueue(Pending item) {
+        if (closed) {
+            item.counted = false;
+            writeBatch(Collections.singletonList(item));
+            return;
+        }
+        queueSpace.acquireUninterruptibly(item.kilobytes(queueKilobytes));
+        pending.incrementAndGet();
+        queue.add(item);
+    }
+
+    private void writeQueued() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        try {
+            Files.createDirectories(resultsDir);
+        } catch (IOException e) {
+            LOG.warn("[ALLURE RESULTS WRITER ERROR] Cant create {}", resultsDir, e);
+        }
+        for (Pending item : batch) {
+            try {
+                item.late = item.result == null && lateAttachments.remove(item.source);
+                byte[] content = content(item);
+                if (content == null) continue;
+                try (FileChannel channel = FileChannel.open(resultsDir.resolve(item.fileName()), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(content);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                (item.result == null ? attachmentWrittenBytes : resultBytes).addAndGet(content.length);
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                LOG.warn("[ALLURE RESULTS WRITER ERROR] Cant write {}", item.fileName(), e);
+            } finally {
+                release(item);
+            }
+        }
+    }
+
+    private void release(Pending item) {
+        if (!item.counted) return;
+        queueSpace.release(item.kilobytes(queueKilobytes));
+        synchronized (pending) {
+            if (pending.decrementAndGet() == 0) pending.notifyAll();
+        }
+    }
+
+    /**
+     * @return the bytes to write, or null for an attachment that is already written
+     */
+    private byte[] content(Pending item) throws IOException {
+        if (item.result != null) {
+            rename(item.result);
+            return mapper.writeValueAsBytes(item.result);
+        }
+        attachmentBytes.addAndGet(item.bytes.length);
+        // its result is already written with this source, so it is stored as is
+        if (item.late) return item.bytes;
+        Attachment stored = new Attachment().setSource(item.fileName()).setType(item.gzip ? GZIP_TYPE : null);
+        if (contentIndex != null) {
+            String key = extension(item.source) + ":" + sha256(item.bytes);
+            String original = contentIndex.putIfAbsent(key, item.fileName());
+            if (original != null) {
+                duplicates.incrementAndGet();
+                duplicateBytes.addAndGet(item.bytes.length);
+                renames.put(item.source, stored.setSource(original));
+                return null;
+            }
+        }
+        if (!item.gzip) return item.bytes;
+        renames.put(item.source, stored);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(item.bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(item.bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void rename(Object result) {
+        for (Attachment attachment : attachments(result, new ArrayList<>())) {
+            if (attachment.getSource() == null) continue;
+            Attachment stored = renames.remove(attachment.getSource());
+            if (stored == null) {
+                // written in the background (videos, screenshots) and not here yet
+                if (!Files.exists(resultsDir.resolve(attachment.getSource()))) lateAttachments.add(attachment.getSource());
+                continue;
+            }
+            attachment.setSource(stored.getSource());
+            if (stored.getType() != null) attachment.setType(stored.getType());
+        }
+    }
+
+    /**
+     * The attachments of a test result or container: their own, their fixtures' and all their steps'.
+     */
+    private static List<Attachment> attachments(Object result, List<Attachment> attachments) {
+        if (result instanceof WithAttachments) {
+            attachments.addAll(((WithAttachments) result).getAttachments());
+        }
+        if (result instanceof WithSteps) {
+            ((WithSteps) result).getSteps().forEach(step -> attachments(step, attachments));
+        }
+        if (result instanceof TestResultContainer) {
+            ((TestResultContainer) result).getBefores().forEach(fixture -> attachments(fixture, attachments));
+            ((TestResultContainer) result).getAfters().forEach(fixture -> attachments(fixture, attachments));
+        }
+        return attachments;
+    }
+
+    private static void replace(Object result, String source, Attachment replacement) {
+        for (Attachment attachment : attachments(result, new ArrayList<>())) {
+            if (!source.equals(attachment.getSource())) continue;
+            attachment.setName(replacement.getName());
+            attachment.setSource(replacement.getSource());
+            attachment.setType(replacement.getType());
+        }
+    }
+
+    private void writeSizeReport() {
+        String summary = sizeSummary();
+        LOG.info("[ALLURE RESULTS WRITER] {}", summary);
+        try {
+            Files.createDirectories(SIZE_REPORT.getParent());
+            Files.write(SIZE_REPORT, (summary + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOG.warn("[ALLURE RESULTS WRITER ERROR] Cant write {}", SIZE_REPORT, e);
+        }
+    }
+
+    private void writeStreaming(String source, byte[] head, InputStream rest) throws IOException {
+        Files.createDirectories(resultsDir);
+        try (FileChannel channel = FileChannel.open(resultsDir.resolve(source),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             ReadableByteChannel body = Channels.newChannel(rest)) {
+            ByteBuffer buffer = ByteBuffer.wrap(head);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            long position = head.length;
+            long read;
+            while ((read = channel.transferFrom(body, position, MAX_QUEUED_ATTACHMENT)) > 0) {
+                position += read;
+            }
+            attachmentBytes.addAndGet(position);
+            attachmentWrittenBytes.addAndGet(position);
+        }
+    }
+
+    private static byte[] readAtMost(InputStream body, int limit) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(limit, 8192));
+        byte[] chunk = new byte[8192];
+        int read;
+        while (buffer.size() < limit && (read = body.read(chunk, 0, Math.min(chunk.length, limit - buffer.size()))) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean isText(String source) {
+        return TEXT_EXTENSIONS.contains(extension(source));
+    }
+
+    private static String extension(String source) {
+        int dot = source.lastIndexOf('.');
+        return dot < 0 ? "" : source.substring(dot);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> lruIndex(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private static class Pending {
+        private final String source;
+        private final Object result;
+        private final byte[] bytes;
+        private final boolean gzip;
+        private boolean counted = true;
+        private boolean late;
+
+        Pending(String source, Object result, byte[] bytes, boolean gzip) {
+            this.source = source;
+            this.result = result;
+            this.bytes = bytes;
+            this.gzip = gzip;
+        }
+
+        String fileName() {
+            return gzip && !late ? source + ".gz" : source;
+        }
+
+        int kilobytes(int max) {
+            return bytes == null ? 1 : Math.min(max, Math.max(1, bytes.length / 1024));
+        }
+    }
+
+    /**
+     * Installs the writer before the Allure JUnit listener picks up the lifecycle, which it does once, in its
+     * constructor. Registered through {@code META-INF/services}: the launcher creates the listeners in class
+     * path order, and the test resources come before the allure-junit-platform jar.
+     */
+    public static class Install implements TestExecutionListener {
+
+        public Install() {
+            if (getConfig(AllureConfig.class).writerBatching()) {
+                Allure.setLifecycle(new AllureLifecycle(batchingResultsWriter()));
+            }
+        }
+    }
+
+    private static class InitBatchingResultsWriter {
+        private static final AllureConfig config = getConfig(AllureConfig.class);
+        private static final BatchingResultsWriter batchingResultsWriter = new BatchingResultsWriter(
+                Paths.get(PropertiesUtils.loadAllureProperties().getProperty("allure.results.directory", "allure-results")),
+                config.writerBatchSize(),
+                config.writerQueueBytes(),
+                config.writerGzipMinBytes(),
+                config.writerDedupMaxEntries());
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(batchingResultsWriter::close));
+        }
+    }
+}
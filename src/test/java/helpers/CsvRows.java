@@ -0,0 +1,137 @@
+package helpers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a CSV file with a header line one row at a time, so data sets of any size are never held in
+ * memory. Fields may be quoted with {@code "}, a quoted {@code ""} is a literal quote; empty lines and
+ * lines starting with {@code #} are skipped.
+ */
+public class CsvRows implements Iterator<CsvRows.Row>, AutoCloseable {
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private Row next;
+    private int lineNumber;
+
+    public CsvRows(InputStream csv) {
+        this.reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = readLine();
+        if (header == null) throw new IllegalArgumentException("CSV has no header line");
+        List<String> names = parse(header);
+        for (int i = 0; i < names.size(); i++) columns.put(names.get(i).trim(), i);
+        next = readRow();
+    }
+
+    public static CsvRows fromClasspath(String resource) {
+        InputStream csv = CsvRows.class.getClassLoader().getResourceAsStream(resource);
+        if (csv == null) throw new IllegalArgumentException("No " + resource + " on the classpath");
+        return new CsvRows(csv);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (next == null) throw new NoSuchElementException();
+        Row row = next;
+        next = readRow();
+        return row;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Row readRow() {
+        String line;
+        while ((line = readLine()) != null) {
+            if (!line.isEmpty() && line.charAt(0) != '#') return new Row(lineNumber, parse(line));
+        }
+        return null;
+    }
+
+    private String readLine() {
+        try {
+            lineNumber++;
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public class Row {
+        private final int line;
+        private final List<String> values;
+
+        Row(int line, List<String> values) {
+            this.line = line;
+            this.values = values;
+        }
+
+        /**
+         * @return the value of the column, empty if the row is shorter than the header
+         */
+        public String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null) throw new IllegalArgumentException("No column " + column + ", columns are " + columns.keySet());
+            return index < values.size() ? values.get(index) : "";
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + " " + Arrays.toString(values.toArray());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package helpers;
+
+import config.DataConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.StepResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a check for every row of a data set inside one test: rows are read {@code batchSize} at a time
+ * from the (streaming) iterator and checked on {@code threads} threads, virtual ones when available.
+ * Each row becomes a step of the running Allure test, added in row order once its batch is done, so ten
+ * thousand rows make one result file with ten thousand steps instead of ten thousand result files.
+ * A failing row is a failed step; the test decides what to do with {@link DataResult#getFailures()}.
+ */
+public class DataDrivenRun {
+    private static final Logger LOG = LoggerFactory.getLogger(DataDrivenRun.class);
+    private static final int REPORTED_FAILURES = 10;
+
+    private final int batchSize;
+    private final int threads;
+
+    public DataDrivenRun(int batchSize, int threads) {
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    public static DataDrivenRun fromConfig(DataConfig config) {
+        return new DataDrivenRun(config.batchSize(), config.threads());
+    }
+
+    public <T> DataResult run(String name, Iterator<T> rows, Function<? super T, String> rowName,
+                              Consumer<? super T> check) {
+        DataResult result = new DataResult(name);
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        boolean reportSteps = lifecycle.getCurrentTestCase().isPresent();
+        ExecutorService executor = VirtualThreads.newExecutor("data", threads);
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<StepResult>> batch = new ArrayList<>(batchSize);
+            while (rows.hasNext()) {
+                T row = rows.next();
+                batch.add(CompletableFuture.supplyAsync(() -> checkRow(rowName.apply(row), row, check), executor));
+                if (batch.size() == batchSize || !rows.hasNext()) {
+                    List<StepResult> steps = new ArrayList<>(batch.size());
+                    for (CompletableFuture<StepResult> step : batch) steps.add(step.join());
+                    result.add(steps);
+                    if (reportSteps) lifecycle.updateTestCase(test -> test.getSteps().addAll(steps));
+                    batch.clear();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        LOG.info("[DATA] {}", result.summary());
+        if (reportSteps) Allure.parameter(name + " rows", result.summary());
+        return result;
+    }
+
+    private static <T> StepResult checkRow(String name, T row, Consumer<? super T> check) {
+        StepResult step = new StepResult().setName(name).setStart(System.currentTimeMillis());
+        try {
+            check.accept(row);
+            step.setStatus(Status.PASSED);
+        } catch (AssertionError e) {
+            step.setStatus(Status.FAILED).setStatusDetails(new StatusDetails().setMessage(e.getMessage()));
+        } catch (RuntimeException e) {
+            step.setStatus(Status.BROKEN).setStatusDetails(new StatusDetails().setMessage(String.valueOf(e)));
+        }
+        return step.setStop(System.currentTimeMillis());
+    }
+
+    public static class DataResult {
+        private final String name;
+        private final List<String> failures = new ArrayList<>();
+        private long rows;
+        private long failed;
+        private long elapsedNanos;
+
+        DataResult(String name) {
+            this.name = name;
+        }
+
+        private void add(List<StepResult> steps) {
+            rows += steps.size();
+            for (StepResult step : steps) {
+                if (step.getStatus() == Status.PASSED) continue;
+                failed++;
+                if (failures.size() < REPORTED_FAILURES) {
+                    failures.add(step.getName() + ": " + step.getStatusDetails().getMessage());
+                }
+            }
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * The first failed rows with their messages.
+         */
+        public List<String> getFailures() {
+            return failures;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+
+        public String summary() {
+            return String.format("%s: %d rows, %d failed, %.1f rows/s", name, rows, failed, getRowsPerSecond());
+        }
+    }
+}
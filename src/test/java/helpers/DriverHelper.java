@@ -1,27 +1,37 @@
 package helpers;
 
 import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.WebDriverRunner;
 import config.DriverConfig;
+import io.github.bonigarcia.wdm.WebDriverManager;
 import io.qameta.allure.selenide.AllureSelenide;
-import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import tests.TestData;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 import static com.codeborne.selenide.Selenide.getWebDriverLogs;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
 import static com.codeborne.selenide.logevents.SelenideLogger.addListener;
+import static com.codeborne.selenide.logevents.SelenideLogger.hasListener;
+import static config.ConfigRegistry.getConfig;
 import static java.lang.String.join;
 import static org.openqa.selenium.logging.LogType.BROWSER;
 
 public class DriverHelper {
 
     private static DriverConfig getDriverConfig() {
-        return ConfigFactory.newInstance().create(DriverConfig.class, System.getProperties());
+        return getConfig(DriverConfig.class);
     }
 
     public static String getWebMobile() {
@@ -56,13 +66,51 @@ public class DriverHelper {
         return ((RemoteWebDriver) getWebDriver()).getSessionId().toString().replace("selenoid","");
     }
 
+    public static boolean isDriverPoolEnabled() {
+        return getDriverConfig().webDriverPoolSize() > 0;
+    }
+
+    public static DriverPool getDriverPool() {
+        return InitDriverPool.driverPool;
+    }
+
+    /**
+     * Detaches the current thread's browser from Selenide and hands it back to the pool.
+     *
+     * @return {@code true} if the session was quit rather than kept for the next test
+     */
+    public static boolean releaseDriver() {
+        WebDriver driver = getWebDriver();
+        if (driver instanceof WrapsDriver) driver = ((WrapsDriver) driver).getWrappedDriver();
+        WebDriverRunner.webdriverContainer.resetWebDriver();
+        return getDriverPool().release(driver);
+    }
+
+    static WebDriver createPooledDriver(Capabilities capabilities) {
+        if (isRemoteWebDriver()) {
+            try {
+                return new RemoteWebDriver(new URL(getWebRemoteDriver()), capabilities);
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException("Wrong remote driver url", e);
+            }
+        }
+        if (!"chrome".equals(getDriverConfig().webBrowser())) {
+            throw new IllegalStateException("Local driver pool supports chrome only, use a remote driver for "
+                    + getDriverConfig().webBrowser());
+        }
+        WebDriverManager.chromedriver().setup();
+        return new ChromeDriver(new ChromeOptions().merge(capabilities));
+    }
+
     public static String getConsoleLogs() {
         return join("\n", getWebDriverLogs(BROWSER));
     }
 
-    public static void configureDriver() {
-        addListener("AllureSelenide", new AllureSelenide());
+    public static void addDriverListeners() {
+        if (!hasListener("AllureSelenide")) addListener("AllureSelenide", new AllureSelenide());
+    }
 
+    public static void configureDriver() {
         Configuration.baseUrl = TestData.getWebUrl();
         Configuration.browser = getDriverConfig().webBrowser();
         Configuration.browserVersion = getDriverConfig().webBrowserVersion();
@@ -81,9 +129,26 @@ public class DriverHelper {
         if (isRemoteWebDriver()) {
             capabilities.setCapability("enableVNC", true);
             capabilities.setCapability("enableVideo", true);
-            Configuration.remote = getWebRemoteDriver();
+            if (!isDriverPoolEnabled()) Configuration.remote = getWebRemoteDriver();
+        }
+
+        if (isDriverPoolEnabled()) {
+            capabilities.setBrowserName(getDriverConfig().webBrowser());
+            Configuration.browser = PooledDriverProvider.class.getName();
         }
 
         Configuration.browserCapabilities = capabilities;
     }
+
+    private static class InitDriverPool {
+        private static final DriverPool driverPool = new DriverPool(
+                getDriverConfig().webDriverPoolSize(),
+                getDriverConfig().webDriverPoolMaxReuse(),
+                Duration.ofSeconds(getDriverConfig().webDriverPoolIdleTimeoutSeconds()),
+                DriverHelper::createPooledDriver);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(driverPool::shutdown));
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package helpers;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of warm browser sessions. A released session is reset (cookies, web storage,
+ * navigation) and handed to the next test unless it is broken, idle for too long or used
+ * {@code maxReuse} times, in which case it is quit.
+ */
+public class DriverPool {
+    private static final Logger LOG = LoggerFactory.getLogger(DriverPool.class);
+
+    private final int maxReuse;
+    private final long idleTimeoutNanos;
+    private final Function<Capabilities, WebDriver> factory;
+    private final Semaphore leases;
+    private final Deque<PooledSession> idle = new ConcurrentLinkedDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger evicted = new AtomicInteger();
+
+    public DriverPool(int size, int maxReuse, Duration idleTimeout, Function<Capabilities, WebDriver> factory) {
+        this.maxReuse = maxReuse;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.factory = factory;
+        this.leases = new Semaphore(size, true);
+    }
+
+    public WebDriver acquire(Capabilities capabilities) {
+        leases.acquireUninterruptibly();
+        try {
+            PooledSession session;
+            while ((session = idle.pollFirst()) != null) {
+                if (System.nanoTime() - session.releasedAt > idleTimeoutNanos) {
+                    quit(session, "idle timeout");
+                } else if (!isAlive(session.driver)) {
+                    quit(session, "broken session");
+                } else {
+                    reused.incrementAndGet();
+                    return lease(session);
+                }
+            }
+            session = new PooledSession(factory.apply(capabilities));
+            created.incrementAndGet();
+            return lease(session);
+        } catch (RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the session to the pool.
+     *
+     * @return {@code true} if the browser session was quit instead of being kept warm
+     */
+    public boolean release(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            driver.quit();
+            return true;
+        }
+        try {
+            if (session.uses >= maxReuse) {
+                quit(session, "max reuse count");
+                return true;
+            }
+            try {
+                reset(driver);
+            } catch (WebDriverException e) {
+                quit(session, "reset failed: " + e.getMessage());
+                return true;
+            }
+            session.releasedAt = System.nanoTime();
+            idle.addFirst(session);
+            return false;
+        } finally {
+            leases.release();
+        }
+    }
+
+    public void invalidate(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session != null) {
+            quit(session, "invalidated");
+            leases.release();
+        }
+    }
+
+    public void shutdown() {
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            quit(session, "shutdown");
+        }
+        LOG.info("[DRIVER POOL] created={}, reused={}, evicted={}", created.get(), reused.get(), evicted.get());
+    }
+
+    public int getCreated() {
+        return created.get();
+    }
+
+    public int getReused() {
+        return reused.get();
+    }
+
+    public int getEvicted() {
+        return evicted.get();
+    }
+
+    private WebDriver lease(PooledSession session) {
+        session.uses++;
+        leased.put(session.driver, session);
+        return session.driver;
+    }
+
+    private static void reset(WebDriver driver) {
+        driver.manage().deleteAllCookies();
+        if (driver instanceof JavascriptExecutor) {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        }
+        driver.navigate().to("about:blank");
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void quit(PooledSession session, String reason) {
+        if (!"shutdown".equals(reason)) evicted.incrementAndGet();
+        LOG.debug("[DRIVER POOL] Closing session after {} uses: {}", session.uses, reason);
+        try {
+            session.driver.quit();
+        } catch (WebDriverException e) {
+            LOG.warn("[DRIVER POOL] Cant quit session", e);
+        }
+    }
+
+    private static class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+        private volatile long releasedAt;
+
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package helpers;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utilization of this test JVM: wall time of the test plan, time spent inside test classes, process CPU and
+ * GC time, written to {@code build/reports/forks/<task>-<worker>.properties} for {@code build.gradle} to sum
+ * up per task. Registered through {@code META-INF/services}; writes nothing outside a Gradle test fork.
+ * <p>
+ * {@link #perFork(Path)} gives the other per-JVM reports a file of their own when a task runs several forks.
+ */
+public class ForkReport implements TestExecutionListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ForkReport.class);
+    private static final Path REPORTS = Paths.get("build", "reports", "forks");
+    private static final String WORKER = "org.gradle.test.worker";
+
+    private final Map<String, Long> classStarts = new ConcurrentHashMap<>();
+    private final LongAdder classes = new LongAdder();
+    private final LongAdder tests = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private long planStart;
+    private long cpuStart;
+    private long gcStart;
+
+    /**
+     * {@code report} with the Gradle worker id before its extension, e.g. {@code phase-timings-fork12.txt},
+     * when {@code build.gradle} runs the task in several forks; otherwise {@code report} itself.
+     */
+    public static Path perFork(Path report) {
+        String worker = System.getProperty(WORKER);
+        if (worker == null || !Boolean.getBoolean("test.forks.split")) return report;
+        String name = report.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String forkName = dot < 0 ? name + "-fork" + worker
+                : name.substring(0, dot) + "-fork" + worker + name.substring(dot);
+        return report.resolveSibling(forkName);
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        planStart = System.nanoTime();
+        cpuStart = processCpuNanos();
+        gcStart = gcMillis();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (isClass(testIdentifier)) classStarts.put(testIdentifier.getUniqueId(), System.nanoTime());
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (testIdentifier.isTest()) tests.increment();
+        Long start = classStarts.remove(testIdentifier.getUniqueId());
+        if (start != null) {
+            classes.increment();
+            busyNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        String worker = System.getProperty(WORKER);
+        if (worker == null || classes.sum() == 0) return;
+        Properties fork = new Properties();
+        fork.setProperty("task", System.getProperty("test.task", "test"));
+        fork.setProperty("worker", worker);
+        fork.setProperty("classes", String.valueOf(classes.sum()));
+        fork.setProperty("tests", String.valueOf(tests.sum()));
+        fork.setProperty("wallMillis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - planStart)));
+        fork.setProperty("busyMillis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(busyNanos.sum())));
+        fork.setProperty("cpuMillis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(processCpuNanos() - cpuStart)));
+        fork.setProperty("gcMillis", String.valueOf(gcMillis() - gcStart));
+        fork.setProperty("jvmUptimeMillis", String.valueOf(ManagementFactory.getRuntimeMXBean().getUptime()));
+        Path file = REPORTS.resolve(fork.getProperty("task") + "-" + worker + ".properties");
+        try {
+            Files.createDirectories(REPORTS);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                fork.store(out, "test fork utilization");
+            }
+        } catch (IOException e) {
+            LOG.warn("[FORK REPORT] Cant write {}", file, e);
+        }
+    }
+
+    private static boolean isClass(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource().filter(ClassSource.class::isInstance).isPresent();
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.OperatingSystemMXBean
+                ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() : 0;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
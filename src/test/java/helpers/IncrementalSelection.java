@@ -0,0 +1,386 @@
+package helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.ApiConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Label;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static config.ConfigRegistry.getConfig;
+import static io.restassured.RestAssured.given;
+
+/**
+ * Incremental mode for read-only API checks, on with {@code api.incremental=true}. A test annotated with
+ * {@link ReadOnly} passed in an earlier run is not invoked again while both the fingerprint of its endpoint
+ * (sha-256 of ETag, Last-Modified and body, one GET per endpoint and run, conditional when an ETag is known)
+ * and its code are unchanged: the bytecode of the test class and of the classes it uses from the same classpath
+ * root, and the resources listed in {@link ReadOnly#resources()}. Code reached only through reflection or
+ * configuration is not followed. It is reported as passed with the Allure tag
+ * {@code reused} and a step saying so. {@code api.incremental.force=true} runs everything and
+ * refreshes the fingerprints in {@code api.incremental.dir}.
+ */
+public class IncrementalSelection implements InvocationInterceptor {
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalSelection.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String FILE_NAME = "fingerprints.json";
+    private static final Pattern DESCRIPTOR_CLASS = Pattern.compile("L([\\w/$]+);");
+    public static final String REUSED_TAG = "reused";
+
+    /**
+     * Test only reads {@code value} with GET and asserts on the response, using the classpath
+     * {@code resources} (e.g. a json schema) besides its own code.
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface ReadOnly {
+        String value();
+
+        String[] resources() default {};
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        ReadOnly readOnly = invocationContext.getExecutable().getAnnotation(ReadOnly.class);
+        ApiConfig config = getConfig(ApiConfig.class);
+        if (readOnly == null || !config.incremental()) {
+            invocation.proceed();
+            return;
+        }
+        Fingerprints fingerprints = extensionContext.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(Fingerprints.class,
+                        key -> new Fingerprints(Paths.get(config.incrementalDir(), FILE_NAME)), Fingerprints.class);
+        String test = extensionContext.getRequiredTestClass().getName() + "#" + invocationContext.getExecutable().getName();
+        String current = fingerprints.current(readOnly.value(), extensionContext.getRequiredTestClass(),
+                readOnly.resources());
+
+        if (!config.incrementalForce() && fingerprints.reusable(test, current)) {
+            invocation.skip();
+            fingerprints.passed(test, current);
+            LOG.info("[INCREMENTAL] Reused {}, GET {} and test code unchanged", test, readOnly.value());
+            Allure.getLifecycle().updateTestCase(result ->
+                    result.getLabels().add(new Label().setName("tag").setValue(REUSED_TAG)));
+            Allure.step("Reused: GET " + readOnly.value()
+                    + " and test code unchanged since the last passed run, assertions not re-run");
+            return;
+        }
+        fingerprints.invalidate(test);
+        invocation.proceed();
+        if (current != null) fingerprints.passed(test, current);
+    }
+
+    private static String sha256(byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                digest.update(part);
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String classesSha256(Class<?> testClass) {
+        ClassLoader loader = testClass.getClassLoader();
+        String root = String.valueOf(loader.getResource(classFile(testClass.getName())));
+        root = root.substring(0, root.length() - classFile(testClass.getName()).length());
+        Map<String, byte[]> bytecode = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>(Collections.singleton(testClass.getName().replace('.', '/')));
+        while (!pending.isEmpty()) {
+            String name = pending.pop();
+            if (bytecode.containsKey(name)) continue;
+            URL url = loader.getResource(name + ".class");
+            if (url == null || !url.toString().startsWith(root)) continue;
+            byte[] classBytes = read(loader, name + ".class");
+            if (classBytes == null) return null;
+            bytecode.put(name, classBytes);
+            try {
+                pending.addAll(referencedClasses(classBytes));
+            } catch (IOException e) {
+                LOG.warn("[INCREMENTAL] Cant parse bytecode of {}", name, e);
+                return null;
+            }
+        }
+        List<byte[]> parts = new ArrayList<>();
+        bytecode.forEach((name, classBytes) -> {
+            parts.add(bytes(name));
+            parts.add(classBytes);
+        });
+        return sha256(parts.toArray(new byte[0][]));
+    }
+
+    private static String classFile(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    /**
+     * Internal names of the classes in the constant pool of a class file, including those only named in
+     * field and method descriptors.
+     */
+    private static Set<String> referencedClasses(byte[] classFile) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        in.skipBytes(8);
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        List<Integer> classNames = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:
+                    classNames.add(in.readUnsignedShort());
+                    break;
+                case 8: case 16: case 19: case 20:
+                    in.skipBytes(2);
+                    break;
+                case 15:
+                    in.skipBytes(3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    in.skipBytes(4);
+                    break;
+                case 5: case 6:
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        Set<String> referenced = new HashSet<>();
+        for (int index : classNames) {
+            String name = utf8[index];
+            if (name != null && !name.startsWith("[")) referenced.add(name);
+        }
+        for (String value : utf8) {
+            if (value == null) continue;
+            for (Matcher descriptor = DESCRIPTOR_CLASS.matcher(value); descriptor.find(); ) {
+                referenced.add(descriptor.group(1));
+            }
+        }
+        return referenced;
+    }
+
+    private static byte[] read(ClassLoader loader, String resource) {
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                LOG.warn("[INCREMENTAL] No {} on the classpath", resource);
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) > 0; ) out.write(buffer, 0, read);
+            return out.toByteArray();
+        } catch (IOException e) {
+            LOG.warn("[INCREMENTAL] Cant read {}", resource, e);
+            return null;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fingerprints of the previous run and of this one, merged into the file when the test plan finishes.
+     * Test JVMs running in parallel (Gradle forks) merge one after the other under a file lock, and tests
+     * not run this time keep their previous entry.
+     */
+    public static class Fingerprints implements ExtensionContext.Store.CloseableResource {
+        private final Path file;
+        private final Map<String, Map<String, String>> previousEndpoints;
+        private final Map<String, String> previousTests;
+        private final Map<String, Map<String, String>> endpoints = new ConcurrentHashMap<>();
+        private final Map<String, String> tests = new ConcurrentHashMap<>();
+        private final Set<String> invalidated = ConcurrentHashMap.newKeySet();
+        private final Map<Class<?>, String> classes = new ConcurrentHashMap<>();
+
+        public Fingerprints(Path file) {
+            this.file = file;
+            Map<String, Object> stored = stored(file);
+            previousEndpoints = endpoints(stored);
+            previousTests = tests(stored);
+        }
+
+        /**
+         * Fingerprint of a test reading {@code path} now: its endpoint's and its code's, {@code null} if either
+         * can't be taken.
+         */
+        public String current(String path, Class<?> testClass, String... resources) {
+            String endpoint = endpoint(path);
+            String code = code(testClass, resources);
+            return endpoint == null || code == null ? null : endpoint + ":" + code;
+        }
+
+        /**
+         * Whether {@code test} passed in an earlier run with the {@code current} fingerprint.
+         */
+        public boolean reusable(String test, String current) {
+            return current != null && current.equals(previousTests.get(test));
+        }
+
+        public void passed(String test, String fingerprint) {
+            invalidated.remove(test);
+            tests.put(test, fingerprint);
+        }
+
+        public void invalidate(String test) {
+            tests.remove(test);
+            invalidated.add(test);
+        }
+
+        /**
+         * sha-256 of the endpoint's current response, {@code null} if it did not answer 200 or 304.
+         */
+        public String endpoint(String path) {
+            Map<String, String> fingerprint = endpoints.computeIfAbsent(path, this::probe);
+            return fingerprint == null ? null : fingerprint.get("sha256");
+        }
+
+        private Map<String, String> probe(String path) {
+            Map<String, String> previous = previousEndpoints.get(path);
+            try {
+                RequestSpecification request = given();
+                if (previous != null && previous.get("etag") != null) {
+                    request.header("If-None-Match", previous.get("etag"));
+                }
+                Response response = request.get(path);
+                if (response.getStatusCode() == 304 && previous != null) return previous;
+                if (response.getStatusCode() != 200) return null;
+                String etag = response.getHeader("ETag");
+                String lastModified = response.getHeader("Last-Modified");
+                Map<String, String> fingerprint = new TreeMap<>();
+                if (etag != null) fingerprint.put("etag", etag);
+                if (lastModified != null) fingerprint.put("lastModified", lastModified);
+                fingerprint.put("sha256", sha256(bytes(etag), bytes(lastModified), response.asByteArray()));
+                return fingerprint;
+            } catch (Exception e) {
+                // connection errors come out of REST Assured as undeclared IOExceptions
+                LOG.warn("[INCREMENTAL] Cant fingerprint GET {}, running its tests", path, e);
+                return null;
+            }
+        }
+
+        /**
+         * sha-256 of the bytecode of {@code testClass} and of every class it references, directly or not, from
+         * the same classpath root (superclasses, helpers, models), plus the given classpath resources;
+         * {@code null} if any of them can't be read.
+         */
+        public String code(Class<?> testClass, String... resources) {
+            String classes = this.classes.computeIfAbsent(testClass, IncrementalSelection::classesSha256);
+            if (classes == null) return null;
+            byte[][] parts = new byte[resources.length + 1][];
+            parts[0] = bytes(classes);
+            for (int i = 0; i < resources.length; i++) {
+                byte[] resource = read(testClass.getClassLoader(), resources[i]);
+                if (resource == null) return null;
+                parts[i + 1] = resource;
+            }
+            return sha256(parts);
+        }
+
+        @Override
+        public void close() {
+            Path lockFile = file.resolveSibling(FILE_NAME + ".lock");
+            try {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.lock();
+                    try {
+                        merge();
+                    } finally {
+                        lock.release();
+                    }
+                }
+                LOG.info("[INCREMENTAL] Fingerprints written to {}", file.toAbsolutePath());
+            } catch (IOException e) {
+                LOG.warn("[INCREMENTAL] Cant write {}", file, e);
+            }
+        }
+
+        private void merge() throws IOException {
+            // re-read, other forks of this run may have merged theirs since this JVM started
+            Map<String, Object> stored = stored(file);
+            Map<String, Map<String, String>> probed = new TreeMap<>(endpoints(stored));
+            probed.putAll(endpoints);
+            Map<String, String> passed = new TreeMap<>(tests(stored));
+            passed.keySet().removeAll(invalidated);
+            passed.putAll(tests);
+            stored.put("endpoints", probed);
+            stored.put("tests", passed);
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), FILE_NAME, ".tmp");
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), stored);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> stored(Path file) {
+            if (!Files.isRegularFile(file)) return new TreeMap<>();
+            try {
+                return new TreeMap<>(MAPPER.readValue(file.toFile(), Map.class));
+            } catch (IOException e) {
+                LOG.warn("[INCREMENTAL] Cant read {}, running everything", file, e);
+                return new TreeMap<>();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Map<String, String>> endpoints(Map<String, Object> stored) {
+            return stored.containsKey("endpoints")
+                    ? (Map<String, Map<String, String>>) stored.get("endpoints") : new HashMap<>();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, String> tests(Map<String, Object> stored) {
+            return stored.containsKey("tests") ? (Map<String, String>) stored.get("tests") : new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package helpers;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+/**
+ * JUnit parallelism for API tests, which spend nearly all their time waiting on the server: the pool
+ * is sized by the wanted number of concurrent tests ({@code custom.parallelism}, default
+ * {@code custom.io.factor} x CPUs) instead of by CPUs, and idle workers are released after
+ * {@code custom.keep.alive.seconds} instead of being kept for the whole run.
+ * <p>
+ * Enabled with {@code junit.jupiter.execution.parallel.config.strategy=custom} and
+ * {@code junit.jupiter.execution.parallel.config.custom.class=helpers.IoBoundParallelStrategy}, which
+ * {@code gradle api -Dthreads=N} sets.
+ */
+public class IoBoundParallelStrategy implements ParallelExecutionConfigurationStrategy {
+    private static final int DEFAULT_IO_FACTOR = 16;
+    private static final int DEFAULT_KEEP_ALIVE_SECONDS = 5;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters parameters) {
+        int ioFactor = parameters.get("custom.io.factor", Integer::valueOf).orElse(DEFAULT_IO_FACTOR);
+        int parallelism = parameters.get("custom.parallelism", Integer::valueOf)
+                .orElse(Runtime.getRuntime().availableProcessors() * ioFactor);
+        int keepAliveSeconds = parameters.get("custom.keep.alive.seconds", Integer::valueOf)
+                .orElse(DEFAULT_KEEP_ALIVE_SECONDS);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("custom.parallelism must be positive: " + parallelism);
+        }
+        return new IoBoundConfiguration(parallelism, keepAliveSeconds);
+    }
+
+    private static class IoBoundConfiguration implements ParallelExecutionConfiguration {
+        private final int parallelism;
+        private final int keepAliveSeconds;
+
+        IoBoundConfiguration(int parallelism, int keepAliveSeconds) {
+            this.parallelism = parallelism;
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return 1;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            // workers blocked in joins are compensated, as with the fixed strategy
+            return parallelism + 256;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package helpers;
+
+import config.LoadConfig;
+import io.qameta.allure.Allure;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a scenario at a constant arrival rate, open model: a new call starts every {@code 1/rate}
+ * seconds whether or not earlier calls have finished. Latency is measured from the time a call was
+ * scheduled to start, so time spent waiting behind slow calls is counted (no coordinated omission).
+ * Service time, from the actual start, is recorded next to it. Calls still running a minute after the
+ * last one was scheduled are recorded as errors at the maximum latency before they are cancelled, and
+ * the achieved rate counts the calls completed within the measurement window only.
+ * <p>
+ * Calls run on virtual threads when available, otherwise on {@code threads} platform threads.
+ */
+public class LoadGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final int ratePerSecond;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int threads;
+
+    public LoadGenerator(int ratePerSecond, Duration warmup, Duration duration, int threads) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("load.rate must be positive: " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.threads = threads;
+    }
+
+    public static LoadGenerator fromConfig(LoadConfig config) {
+        return new LoadGenerator(config.ratePerSecond(), Duration.ofSeconds(config.warmupSeconds()),
+                Duration.ofSeconds(config.durationSeconds()), config.threads());
+    }
+
+    public LoadResult run(String name, Runnable scenario) throws InterruptedException {
+        LoadResult result = new LoadResult(name, ratePerSecond, duration);
+        ExecutorService executor = VirtualThreads.newExecutor("load", threads);
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        // measured calls by number until recorded, by the call itself or as unfinished
+        Map<Long, Long> unfinished = new ConcurrentHashMap<>();
+        try {
+            for (long call = 0; ; call++) {
+                long scheduled = start + call * periodNanos;
+                if (scheduled >= end) break;
+                sleepUntil(scheduled);
+                long number = call;
+                if (scheduled >= measureFrom) unfinished.put(number, scheduled);
+                executor.execute(() -> {
+                    long started = System.nanoTime();
+                    boolean failed = false;
+                    try {
+                        scenario.run();
+                    } catch (RuntimeException | AssertionError e) {
+                        failed = true;
+                    }
+                    long finished = System.nanoTime();
+                    if (finished >= measureFrom && finished <= end) result.completedInWindow();
+                    if (unfinished.remove(number) != null) result.record(scheduled, started, finished, failed);
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            // recorded before cancelling, so an interrupted call can't record a shorter latency
+            for (Long number : unfinished.keySet()) {
+                if (unfinished.remove(number) != null) result.recordUnfinished();
+            }
+            LOG.warn("[LOAD] {}: {} calls still running after {}, recorded as errors",
+                    name, result.getUnfinished(), DRAIN_TIMEOUT);
+            executor.shutdownNow();
+        }
+        LOG.info("[LOAD] {}", result.summary().trim());
+        return result;
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    public static class LoadResult {
+        private final String name;
+        private final int targetRate;
+        private final Duration duration;
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder unfinished = new LongAdder();
+        private final LongAdder completedInWindow = new LongAdder();
+
+        LoadResult(String name, int targetRate, Duration duration) {
+            this.name = name;
+            this.targetRate = targetRate;
+            this.duration = duration;
+        }
+
+        private void record(long scheduled, long started, long finished, boolean failed) {
+            latency.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(finished - scheduled)));
+            serviceTime.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(finished - started)));
+            if (failed) errors.increment();
+        }
+
+        /**
+         * A call that didn't finish: an error with latency beyond what the histogram tracks. Its service
+         * time is unknown and not recorded.
+         */
+        private void recordUnfinished() {
+            latency.recordValue(MAX_LATENCY_MICROS);
+            errors.increment();
+            unfinished.increment();
+        }
+
+        private void completedInWindow() {
+            completedInWindow.increment();
+        }
+
+        public long getRequests() {
+            return latency.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * Calls cancelled after the drain timeout, included in {@link #getErrors()}.
+         */
+        public long getUnfinished() {
+            return unfinished.sum();
+        }
+
+        public double getErrorRate() {
+            return getRequests() == 0 ? 0 : (double) getErrors() / getRequests();
+        }
+
+        /**
+         * Calls completed per second within the measurement window, wherever they were scheduled.
+         */
+        public double getAchievedRate() {
+            return completedInWindow.sum() / (duration.toNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+
+        /**
+         * Latency from the scheduled start, in microseconds.
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public String summary() {
+            return String.format("%s: target %d/s, achieved %.1f/s over %ds, %d requests,"
+                            + " %d errors (%d unfinished)%n"
+                            + "latency ms      p50 %8.2f  p90 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f%n"
+                            + "service time ms p50 %8.2f  p90 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f%n",
+                    name, targetRate, getAchievedRate(), duration.getSeconds(), getRequests(), getErrors(),
+                    getUnfinished(),
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0,
+                    millis(serviceTime, 50), millis(serviceTime, 90), millis(serviceTime, 99),
+                    millis(serviceTime, 99.9), serviceTime.getMaxValue() / 1000.0);
+        }
+
+        /**
+         * Adds the summary and both percentile distributions (HdrHistogram {@code .hgrm}, in
+         * milliseconds) to the current test.
+         */
+        public void attachToAllure() {
+            Allure.addAttachment(name + " load summary", "text/plain", summary(), ".txt");
+            Allure.addAttachment(name + " latency", "text/plain", distribution(latency), ".hgrm");
+            Allure.addAttachment(name + " service time", "text/plain", distribution(serviceTime), ".hgrm");
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        private static String distribution(Histogram histogram) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (PrintStream print = new PrintStream(out, true, "UTF-8")) {
+                histogram.outputPercentileDistribution(print, 5, 1000.0);
+                return out.toString("UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package helpers;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+
+/**
+ * Runs the longest tests of a class first by their duration in {@link TestHistory#previous()}, so
+ * concurrent runs do not end waiting on one slow test. Without history tests run by {@code @Severity},
+ * blocker first. The default orderer of the Gradle test tasks.
+ */
+public class LongestFirstMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        TestHistory history = TestHistory.previous();
+        Comparator<MethodDescriptor> longestFirst = Comparator.comparingLong(
+                (MethodDescriptor descriptor) -> durationMillis(history, descriptor.getMethod())).reversed();
+        Comparator<MethodDescriptor> bySeverity = Comparator.comparingInt(
+                descriptor -> TestHistory.severityRank(descriptor.getMethod()));
+        context.getMethodDescriptors().sort(history.isEmpty()
+                ? bySeverity.thenComparing(longestFirst)
+                : longestFirst.thenComparing(bySeverity));
+    }
+
+    private static long durationMillis(TestHistory history, Method method) {
+        return history.durationMillis(method.getDeclaringClass().getName(), method.getName());
+    }
+}
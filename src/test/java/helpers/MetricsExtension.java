@@ -0,0 +1,49 @@
+package helpers;
+
+import filters.MetricsFilter;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static filters.MetricsFilter.metricsFilter;
+
+/**
+ * Attributes the requests {@link MetricsFilter} records to the running test and writes
+ * {@code http-metrics.json} into the Allure results directory when the test plan finishes.
+ */
+public class MetricsExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsExtension.class);
+    private static final String REPORT_NAME = "http-metrics.json";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(MetricsExtension.class, key -> (ExtensionContext.Store.CloseableResource) () -> {
+                    Path report = ForkReport.perFork(
+                            Paths.get(System.getProperty("allure.results.directory", "allure-results"), REPORT_NAME));
+                    try {
+                        metricsFilter().writeReport(report);
+                        LOG.info("[HTTP METRICS] Written to {}", report.toAbsolutePath());
+                    } catch (IOException e) {
+                        LOG.warn("[HTTP METRICS] Cant write {}", report, e);
+                    }
+                }, ExtensionContext.Store.CloseableResource.class);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        metricsFilter().testStarted(context.getRequiredTestClass().getSimpleName() + "." + context.getDisplayName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        metricsFilter().testFinished();
+    }
+}
@@ -0,0 +1,100 @@
+package helpers;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects wall-clock time per lifecycle phase (setup, test, attachments, driver close) and peak heap
+ * usage, and writes a report to {@code build/reports/phase-timings.txt} when the test plan finishes.
+ */
+public class PhaseTimings implements BeforeAllCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final Logger LOG = LoggerFactory.getLogger(PhaseTimings.class);
+    private static final Path REPORT = ForkReport.perFork(Paths.get("build", "reports", "phase-timings.txt"));
+
+    private static final Map<String, Phase> PHASES = new ConcurrentSkipListMap<>();
+    private static final LongAccumulator PEAK_HEAP = new LongAccumulator(Math::max, 0);
+    private static final String TEST_START = "testStart";
+
+    public static void measure(String phase, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void record(String phase, long nanos) {
+        PHASES.computeIfAbsent(phase, key -> new Phase()).add(nanos);
+        PEAK_HEAP.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(PhaseTimings.class, key -> new Report(), Report.class);
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(ExtensionContext.Namespace.create(PhaseTimings.class)).put(TEST_START, System.nanoTime());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Long start = context.getStore(ExtensionContext.Namespace.create(PhaseTimings.class))
+                .remove(TEST_START, Long.class);
+        if (start != null) record("test", System.nanoTime() - start);
+    }
+
+    static String report() {
+        StringBuilder report = new StringBuilder(String.format("%-20s %8s %12s %12s%n", "phase", "count", "total ms", "avg ms"));
+        PHASES.forEach((name, phase) -> {
+            long count = phase.count.sum();
+            double totalMs = phase.nanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            report.append(String.format("%-20s %8d %12.1f %12.2f%n", name, count, totalMs, count == 0 ? 0 : totalMs / count));
+        });
+        report.append(String.format("peak heap used: %d MB%n", PEAK_HEAP.get() / (1024 * 1024)));
+        return report.toString();
+    }
+
+    private static class Phase {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void add(long value) {
+            count.increment();
+            nanos.add(value);
+        }
+    }
+
+    private static class Report implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            String report = report();
+            LOG.info("[PHASE TIMINGS]\n{}", report);
+            try {
+                Files.createDirectories(REPORT.getParent());
+                Files.write(REPORT, report.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOG.warn("[PHASE TIMINGS] Cant write report, {}", REPORT, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package helpers;
+
+import com.codeborne.selenide.WebDriverProvider;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+/**
+ * Lets Selenide take browsers from {@link DriverHelper#getDriverPool()} instead of starting new ones.
+ */
+public class PooledDriverProvider implements WebDriverProvider {
+
+    @Override
+    public WebDriver createDriver(DesiredCapabilities desiredCapabilities) {
+        return DriverHelper.getDriverPool().acquire(desiredCapabilities);
+    }
+}
@@ -0,0 +1,96 @@
+package helpers;
+
+import config.ScheduleConfig;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Compares the {@link TestSchedule} prediction with the run: predicted time of every shard and the
+ * planned makespan against the actual time of this shard and of each of its classes, written to
+ * {@code build/reports/test-schedule.txt}. Registered through {@code META-INF/services}.
+ */
+public class ScheduleReport implements TestExecutionListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduleReport.class);
+    private static final Path REPORT = ForkReport.perFork(Paths.get("build", "reports", "test-schedule.txt"));
+
+    private final Map<String, Long> classStarts = new ConcurrentHashMap<>();
+    private final Map<String, Long> classMillis = new ConcurrentHashMap<>();
+    private volatile long planStart;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        planStart = System.nanoTime();
+        classStarts.clear();
+        classMillis.clear();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        className(testIdentifier).ifPresent(name -> classStarts.put(name, System.nanoTime()));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        className(testIdentifier).ifPresent(name -> {
+            Long start = classStarts.remove(name);
+            if (start != null) classMillis.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (classMillis.isEmpty()) return;
+        long actualMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - planStart);
+        TestSchedule.current().ifPresent(schedule -> {
+            String report = report(schedule, getConfig(ScheduleConfig.class).shardIndex(), actualMillis);
+            LOG.info("[TEST SCHEDULE] {}", report.substring(0, report.indexOf('\n', report.indexOf('\n') + 1)));
+            try {
+                Files.createDirectories(REPORT.getParent());
+                Files.write(REPORT, report.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOG.warn("[TEST SCHEDULE] Cant write {}", REPORT, e);
+            }
+        });
+    }
+
+    private String report(TestSchedule schedule, int shard, long actualMillis) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("shard %d of %d: predicted %d ms, actual %d ms%n",
+                shard, schedule.getShards(), schedule.predictedMillis(shard), actualMillis));
+        report.append(String.format("planned makespan %d ms, shards:", schedule.makespanMillis()));
+        for (int i = 1; i <= schedule.getShards(); i++) {
+            report.append(' ').append(schedule.predictedMillis(i));
+        }
+        report.append(String.format(" ms%n%n%-50s %6s %12s %10s%n", "class", "shard", "predicted ms", "actual ms"));
+        for (TestSchedule.Entry entry : schedule.getOrder()) {
+            Long actual = classMillis.get(entry.getClassName());
+            if (actual == null) continue;
+            report.append(String.format("%-50s %6d %12d %10d%n",
+                    entry.getClassName(), entry.getShard(), entry.getEstimateMillis(), actual));
+        }
+        return report.toString();
+    }
+
+    private static Optional<String> className(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+                .filter(ClassSource.class::isInstance)
+                .map(source -> ((ClassSource) source).getClassName());
+    }
+}
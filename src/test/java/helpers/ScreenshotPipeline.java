@@ -0,0 +1,228 @@
+package helpers;
+
+import config.AllureConfig;
+import config.DriverConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static config.ConfigRegistry.getConfig;
+import static helpers.BatchingResultsWriter.batchingResultsWriter;
+
+/**
+ * Encodes screenshots off the test thread: the test only grabs the PNG bytes from the browser, while a
+ * bounded pool downscales them by {@code screenshot.scale} and re-encodes them as {@code png} or
+ * {@code jpeg} ({@code screenshot.jpeg.quality}). When the queue is full the test thread encodes
+ * itself. Capture and encode times are recorded as {@link PhaseTimings} phases
+ * "screenshot capture" and "screenshot encode".
+ */
+public class ScreenshotPipeline {
+    private static final Logger LOG = LoggerFactory.getLogger(ScreenshotPipeline.class);
+    private static final Duration AWAIT_TIMEOUT = Duration.ofMinutes(2);
+    private static final ThreadLocal<Boolean> TEST_FAILED = new ThreadLocal<>();
+    private static volatile boolean started;
+
+    private final double scale;
+    private final boolean jpeg;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor encoders;
+    private final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+    private final BatchingResultsWriter resultsWriter;
+
+    public ScreenshotPipeline(int threads, int queueSize, double scale, String format, float jpegQuality) {
+        this(threads, queueSize, scale, format, jpegQuality,
+                getConfig(AllureConfig.class).writerBatching() ? batchingResultsWriter() : null);
+    }
+
+    /**
+     * @param resultsWriter the writer of the lifecycle screenshots are attached to, or null if it is not a
+     *                      {@link BatchingResultsWriter}
+     */
+    public ScreenshotPipeline(int threads, int queueSize, double scale, String format, float jpegQuality,
+                              BatchingResultsWriter resultsWriter) {
+        this.resultsWriter = resultsWriter;
+        if (!"png".equals(format) && !"jpeg".equals(format)) {
+            throw new IllegalArgumentException("screenshot.format must be png or jpeg: " + format);
+        }
+        this.scale = Math.min(1.0, scale);
+        this.jpeg = "jpeg".equals(format);
+        this.jpegQuality = jpegQuality;
+        AtomicInteger number = new AtomicInteger();
+        this.encoders = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-encode-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        encoders.allowCoreThreadTimeOut(true);
+    }
+
+    public static ScreenshotPipeline screenshots() {
+        started = true;
+        return InitScreenshotPipeline.screenshotPipeline;
+    }
+
+    /**
+     * @return whether the test that just ran on this thread failed, as recorded by {@link RecordOutcome}
+     */
+    public static boolean lastTestFailed() {
+        return Boolean.TRUE.equals(TEST_FAILED.get());
+    }
+
+    /**
+     * Adds the attachment to the current test right away and writes the encoded image in the background.
+     */
+    public CompletableFuture<Void> attach(String name, byte[] png) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String source = lifecycle.prepareAttachment(name, jpeg ? "image/jpeg" : "image/png", jpeg ? "jpg" : "png");
+        if (jpeg && resultsWriter != null) resultsWriter.expect(source);
+        CompletableFuture<Void> result = CompletableFuture.runAsync(() -> write(lifecycle, name, source, png), encoders);
+        pending.add(result);
+        result.whenComplete((value, error) -> pending.remove(result));
+        return result;
+    }
+
+    public boolean awaitCompletion(Duration timeout) {
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            LOG.warn("[ALLURE SCREENSHOT ERROR] {} screenshots still encoding after {}", pending.size(), timeout);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A screenshot that can't be encoded is attached as taken: under its own png source with the batching
+     * results writer, which holds the result (or the container of an {@code @AfterEach} fixture) back for
+     * jpeg screenshots; otherwise it is not attached.
+     */
+    private void write(AllureLifecycle lifecycle, String name, String source, byte[] png) {
+        long start = System.nanoTime();
+        byte[] image;
+        try {
+            image = encode(png);
+        } catch (IOException | RuntimeException e) {
+            if (!jpeg) {
+                LOG.warn("[ALLURE SCREENSHOT ERROR] Cant scale screenshot {}, attaching it as taken", source, e);
+                image = png;
+            } else if (resultsWriter != null) {
+                LOG.warn("[ALLURE SCREENSHOT ERROR] Cant encode screenshot {}, attaching it as png", source, e);
+                String pngSource = UUID.randomUUID() + "-attachment.png";
+                lifecycle.writeAttachment(pngSource, new ByteArrayInputStream(png));
+                resultsWriter.attachedInstead(source,
+                        new Attachment().setName(name).setSource(pngSource).setType("image/png"));
+                return;
+            } else {
+                LOG.warn("[ALLURE SCREENSHOT ERROR] Cant encode screenshot {}, not attached", source, e);
+                return;
+            }
+        } finally {
+            PhaseTimings.record("screenshot encode", System.nanoTime() - start);
+        }
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(image));
+        if (jpeg && resultsWriter != null) resultsWriter.attached(source);
+    }
+
+    byte[] encode(byte[] png) throws IOException {
+        if (scale >= 1.0 && !jpeg) return png;
+        BufferedImage original = ImageIO.read(new ByteArrayInputStream(png));
+        if (original == null) throw new IOException("Not an image");
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(original, 0, 0, width, height, jpeg ? Color.WHITE : null, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 4);
+        if (!jpeg) {
+            ImageIO.write(scaled, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Records whether a test failed before its {@code @AfterEach} methods take attachments.
+     */
+    public static class RecordOutcome implements AfterTestExecutionCallback {
+
+        @Override
+        public void afterTestExecution(ExtensionContext context) {
+            TEST_FAILED.set(context.getExecutionException().isPresent());
+        }
+    }
+
+    /**
+     * Waits for screenshots still being encoded when the test plan finishes.
+     */
+    public static class AwaitPending implements BeforeAllCallback {
+
+        @Override
+        public void beforeAll(ExtensionContext context) {
+            context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                    .getOrComputeIfAbsent(AwaitPending.class, key -> (ExtensionContext.Store.CloseableResource) () -> {
+                        if (started) screenshots().awaitCompletion(AWAIT_TIMEOUT);
+                    }, ExtensionContext.Store.CloseableResource.class);
+        }
+    }
+
+    private static class InitScreenshotPipeline {
+        private static final DriverConfig config = getConfig(DriverConfig.class);
+        private static final ScreenshotPipeline screenshotPipeline = new ScreenshotPipeline(
+                config.screenshotEncodeThreads(),
+                config.screenshotEncodeQueue(),
+                config.screenshotScale(),
+                config.screenshotFormat(),
+                config.screenshotJpegQuality());
+    }
+}
@@ -0,0 +1,114 @@
+package helpers;
+
+import config.ScheduleConfig;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Plans the discovered test classes with {@link TestSchedule} from {@link TestHistory#previous()}, runs
+ * them longest first and, with {@code -Dshard.total=N -Dshard.index=i}, keeps only the classes of
+ * shard {@code i}. Every node computes the same plan as long as it reads the same history.
+ * <p>
+ * JUnit 5.7 has no {@code ClassOrderer}, so the order is applied by re-adding the class descriptors
+ * to their engine in plan order. Changing the tree from {@link PostDiscoveryFilter#apply} is not part of
+ * the launcher's contract: it works with the pinned platform 1.7 (JUnit 5.7), which applies filters to a
+ * fully discovered tree and executes children in their current order. On any other platform version the
+ * discovery order is kept and only sharding applies; with JUnit 5.8 the ordering belongs in a
+ * {@code ClassOrderer}. Registered through {@code META-INF/services}.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardFilter.class);
+    private static final String LAUNCHER_VERSION = PostDiscoveryFilter.class.getPackage().getImplementationVersion();
+    private static final boolean REORDER = LAUNCHER_VERSION != null && LAUNCHER_VERSION.startsWith("1.7.");
+
+    private final int shardIndex;
+    private final int shardTotal;
+    private final Map<UniqueId, TestSchedule> schedules = new ConcurrentHashMap<>();
+
+    public ShardFilter() {
+        ScheduleConfig config = getConfig(ScheduleConfig.class);
+        this.shardIndex = config.shardIndex();
+        this.shardTotal = config.shardTotal();
+        if (shardIndex < 1 || shardIndex > shardTotal) {
+            throw new IllegalArgumentException("shard.index must be within 1.." + shardTotal + ": " + shardIndex);
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        // the launcher only removes excluded leaves, so every test is matched to its top level class
+        TestDescriptor topLevel = descriptor;
+        while (topLevel.getParent().isPresent() && !topLevel.getParent().get().isRoot()) {
+            topLevel = topLevel.getParent().get();
+        }
+        Optional<TestDescriptor> engine = topLevel.getParent();
+        if (!engine.isPresent() || !isClass(topLevel)) return FilterResult.included("not in a test class");
+
+        TestSchedule schedule = schedules.computeIfAbsent(engine.get().getUniqueId(), id -> plan(engine.get()));
+        int shard = schedule.shardOf(className(topLevel));
+        return FilterResult.includedIf(shardTotal == 1 || shard == shardIndex,
+                () -> "planned for shard " + shard + " of " + shardTotal,
+                () -> "planned for shard " + shard + " of " + shardTotal + ", running " + shardIndex);
+    }
+
+    private TestSchedule plan(TestDescriptor engine) {
+        TestHistory history = TestHistory.previous();
+        Map<String, TestDescriptor> classes = new LinkedHashMap<>();
+        List<TestSchedule.Entry> entries = new ArrayList<>();
+        for (TestDescriptor child : engine.getChildren()) {
+            if (!isClass(child)) continue;
+            classes.put(className(child), child);
+            entries.add(estimate(className(child), child, history));
+        }
+        TestSchedule schedule = TestSchedule.plan(entries, shardTotal, history.isEmpty());
+        if (REORDER) {
+            for (TestSchedule.Entry entry : schedule.getOrder()) {
+                TestDescriptor child = classes.get(entry.getClassName());
+                engine.removeChild(child);
+                engine.addChild(child);
+            }
+        } else {
+            LOG.warn("[TEST SCHEDULE] Class order is only applied with JUnit platform 1.7, running {}: keeping"
+                    + " the discovery order", LAUNCHER_VERSION);
+        }
+        TestSchedule.setCurrent(schedule);
+        LOG.info("[TEST SCHEDULE] {} classes on {} shards, predicted makespan {} ms{}", entries.size(), shardTotal,
+                schedule.makespanMillis(), history.isEmpty() ? ", no history: ordered by severity" : "");
+        return schedule;
+    }
+
+    private static TestSchedule.Entry estimate(String className, TestDescriptor descriptor, TestHistory history) {
+        long millis = 0;
+        int severityRank = Integer.MAX_VALUE;
+        for (TestDescriptor test : descriptor.getDescendants()) {
+            if (!(test.getSource().orElse(null) instanceof MethodSource)) continue;
+            MethodSource method = (MethodSource) test.getSource().get();
+            millis += history.durationMillis(method.getClassName(), method.getMethodName());
+            severityRank = Math.min(severityRank, TestHistory.severityRank(method.getJavaMethod()));
+        }
+        return new TestSchedule.Entry(className, millis, severityRank);
+    }
+
+    private static boolean isClass(TestDescriptor descriptor) {
+        return descriptor.getSource().orElse(null) instanceof ClassSource;
+    }
+
+    private static String className(TestDescriptor descriptor) {
+        return ((ClassSource) descriptor.getSource().get()).getClassName();
+    }
+}
@@ -0,0 +1,109 @@
+package helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.ScheduleConfig;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * Test durations of an earlier run, read from its Allure {@code *-result.json} files. Only the latest
+ * result of every test (history id) counts; invocations of a parameterized test are added up.
+ * Tests without history are estimated as the median known test, or one second without any history.
+ */
+public class TestHistory {
+    private static final Logger LOG = LoggerFactory.getLogger(TestHistory.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long DEFAULT_ESTIMATE_MILLIS = 1000;
+
+    private final Map<String, Long> durations;
+    private final long estimateMillis;
+
+    public TestHistory(Map<String, Long> durations) {
+        this.durations = durations;
+        this.estimateMillis = median(durations);
+    }
+
+    public static TestHistory previous() {
+        return InitTestHistory.testHistory;
+    }
+
+    public static TestHistory read(Path resultsDir) {
+        if (!Files.isDirectory(resultsDir)) return new TestHistory(Collections.emptyMap());
+        Map<String, JsonNode> latest = new HashMap<>();
+        try (DirectoryStream<Path> results = Files.newDirectoryStream(resultsDir, "*-result.json")) {
+            for (Path result : results) {
+                JsonNode node = readResult(result);
+                if (node == null || !node.has("fullName") || !node.has("stop")) continue;
+                String test = node.has("historyId") ? node.get("historyId").asText() : node.get("fullName").asText();
+                latest.merge(test, node,
+                        (known, next) -> next.path("stop").asLong() > known.path("stop").asLong() ? next : known);
+            }
+        } catch (IOException e) {
+            LOG.warn("[TEST SCHEDULE] Cant read test history from {}", resultsDir, e);
+        }
+        Map<String, Long> durations = new HashMap<>();
+        latest.values().forEach(node -> durations.merge(node.path("fullName").asText(),
+                Math.max(0, node.path("stop").asLong() - node.path("start").asLong()), Long::sum));
+        return new TestHistory(durations);
+    }
+
+    public boolean isEmpty() {
+        return durations.isEmpty();
+    }
+
+    public boolean contains(String className, String methodName) {
+        return durations.containsKey(className + "." + methodName);
+    }
+
+    public long durationMillis(String className, String methodName) {
+        Long duration = durations.get(className + "." + methodName);
+        return duration == null ? estimateMillis : duration;
+    }
+
+    /**
+     * {@link SeverityLevel} ordinal of the test, blocker first; without {@code @Severity} on the method or
+     * its class the test counts as normal.
+     */
+    public static int severityRank(Method method) {
+        Severity severity = method.getAnnotation(Severity.class);
+        if (severity == null) severity = method.getDeclaringClass().getAnnotation(Severity.class);
+        return (severity == null ? SeverityLevel.NORMAL : severity.value()).ordinal();
+    }
+
+    private static JsonNode readResult(Path result) {
+        try {
+            return MAPPER.readTree(result.toFile());
+        } catch (IOException e) {
+            LOG.debug("[TEST SCHEDULE] Skipping unreadable {}", result, e);
+            return null;
+        }
+    }
+
+    private static long median(Map<String, Long> durations) {
+        if (durations.isEmpty()) return DEFAULT_ESTIMATE_MILLIS;
+        long[] sorted = durations.values().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static class InitTestHistory {
+        private static final TestHistory testHistory =
+                read(Paths.get(getConfig(ScheduleConfig.class).historyDir()));
+    }
+}
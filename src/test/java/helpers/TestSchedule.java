@@ -0,0 +1,111 @@
+package helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Longest-processing-time-first plan of test classes over {@code shards} nodes: classes are taken
+ * longest first and each goes to the node with the least predicted time so far. Without any history
+ * the order falls back to {@code @Severity}, blocker first, and estimates only count tests.
+ */
+public class TestSchedule {
+    private static volatile TestSchedule current;
+
+    private final List<Entry> order;
+    private final Map<String, Entry> byClass = new HashMap<>();
+    private final long[] predictedMillis;
+
+    private TestSchedule(List<Entry> order, int shards) {
+        this.order = Collections.unmodifiableList(order);
+        this.predictedMillis = new long[shards];
+        for (Entry entry : order) {
+            int shard = 0;
+            for (int i = 1; i < shards; i++) {
+                if (predictedMillis[i] < predictedMillis[shard]) shard = i;
+            }
+            predictedMillis[shard] += entry.estimateMillis;
+            entry.shard = shard + 1;
+            byClass.put(entry.className, entry);
+        }
+    }
+
+    public static TestSchedule plan(List<Entry> classes, int shards, boolean severityFirst) {
+        if (shards < 1) throw new IllegalArgumentException("shards must be positive: " + shards);
+        Comparator<Entry> longestFirst = Comparator.comparingLong((Entry entry) -> entry.estimateMillis).reversed();
+        Comparator<Entry> bySeverity = Comparator.comparingInt(entry -> entry.severityRank);
+        List<Entry> order = new ArrayList<>(classes);
+        order.sort((severityFirst ? bySeverity.thenComparing(longestFirst) : longestFirst.thenComparing(bySeverity))
+                .thenComparing(entry -> entry.className));
+        return new TestSchedule(order, shards);
+    }
+
+    public static Optional<TestSchedule> current() {
+        return Optional.ofNullable(current);
+    }
+
+    static void setCurrent(TestSchedule schedule) {
+        current = schedule;
+    }
+
+    public List<Entry> getOrder() {
+        return order;
+    }
+
+    public int getShards() {
+        return predictedMillis.length;
+    }
+
+    /**
+     * @return 1-based shard of the class, or 0 if it is not planned
+     */
+    public int shardOf(String className) {
+        Entry entry = byClass.get(className);
+        return entry == null ? 0 : entry.shard;
+    }
+
+    public Optional<Entry> entry(String className) {
+        return Optional.ofNullable(byClass.get(className));
+    }
+
+    public long predictedMillis(int shard) {
+        return predictedMillis[shard - 1];
+    }
+
+    public long makespanMillis() {
+        long makespan = 0;
+        for (long millis : predictedMillis) {
+            makespan = Math.max(makespan, millis);
+        }
+        return makespan;
+    }
+
+    public static class Entry {
+        private final String className;
+        private final long estimateMillis;
+        private final int severityRank;
+        private int shard;
+
+        public Entry(String className, long estimateMillis, int severityRank) {
+            this.className = className;
+            this.estimateMillis = estimateMillis;
+            this.severityRank = severityRank;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public long getEstimateMillis() {
+            return estimateMillis;
+        }
+
+        public int getShard() {
+            return shard;
+        }
+    }
+}
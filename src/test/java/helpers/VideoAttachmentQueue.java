@@ -0,0 +1,210 @@
+package helpers;
+
+import config.AllureConfig;
+import config.DriverConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static config.ConfigRegistry.getConfig;
+import static helpers.BatchingResultsWriter.batchingResultsWriter;
+
+/**
+ * Downloads session videos off the test thread. The attachment is registered on the calling test
+ * right away and the file is streamed into the Allure results directory once the video storage
+ * serves it, retrying with exponential backoff.
+ * <p>
+ * With the {@link BatchingResultsWriter} (the default) the test's result, or the container of the
+ * {@code @AfterEach} fixture that attached it, is held back until then, and a video that can't be
+ * downloaded is replaced by a "Video not attached" text saying why. Other results writers keep the
+ * reference to the missing file; failures are listed in the failures report either way.
+ */
+public class VideoAttachmentQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(VideoAttachmentQueue.class);
+    private static final Path FAILURES_REPORT =
+            ForkReport.perFork(Paths.get("build", "reports", "video-attachment-failures.txt"));
+    private static final Duration AWAIT_TIMEOUT = Duration.ofMinutes(5);
+    private static volatile boolean started;
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final ExecutorService downloads;
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(daemon("video-retry"));
+    private final Set<CompletableFuture<String>> pending = ConcurrentHashMap.newKeySet();
+    private final List<String> failures = new CopyOnWriteArrayList<>();
+    private final BatchingResultsWriter resultsWriter;
+
+    public VideoAttachmentQueue(int threads, int maxAttempts, Duration initialDelay, Duration maxDelay) {
+        this(threads, maxAttempts, initialDelay, maxDelay,
+                getConfig(AllureConfig.class).writerBatching() ? batchingResultsWriter() : null);
+    }
+
+    /**
+     * @param resultsWriter the writer of the lifecycle videos are attached to, or null if it is not a
+     *                      {@link BatchingResultsWriter}
+     */
+    public VideoAttachmentQueue(int threads, int maxAttempts, Duration initialDelay, Duration maxDelay,
+                                BatchingResultsWriter resultsWriter) {
+        this.resultsWriter = resultsWriter;
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.downloads = Executors.newFixedThreadPool(threads, daemon("video-download"));
+    }
+
+    public static VideoAttachmentQueue videoAttachments() {
+        started = true;
+        return InitVideoAttachmentQueue.videoAttachmentQueue;
+    }
+
+    /**
+     * Adds a "Video" attachment to the current test and fills it in the background.
+     *
+     * @return the attachment source file name, completed once the file is written
+     */
+    public CompletableFuture<String> attach(URL videoUrl) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String source = lifecycle.prepareAttachment("Video", "video/mp4", "mp4");
+        if (resultsWriter != null) resultsWriter.expect(source);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        pending.add(result);
+        result.whenComplete((value, error) -> pending.remove(result));
+
+        schedule(() -> download(lifecycle, videoUrl, source, 1, result), initialDelayMillis);
+        return result;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public boolean awaitCompletion(Duration timeout) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+        try {
+            all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // individual failures are already recorded
+        } catch (TimeoutException e) {
+            failures.add(pending.size() + " video downloads still pending after " + timeout);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    private void download(AllureLifecycle lifecycle, URL videoUrl, String source, int attempt,
+                          CompletableFuture<String> result) {
+        Path file = null;
+        try {
+            // downloaded in full first, so a broken transfer is retried and never leaves a partial attachment
+            file = Files.createTempFile("video-", ".mp4");
+            try (InputStream video = videoUrl.openStream()) {
+                Files.copy(video, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (InputStream video = Files.newInputStream(file)) {
+                lifecycle.writeAttachment(source, video);
+            }
+            if (resultsWriter != null) resultsWriter.attached(source);
+            result.complete(source);
+        } catch (IOException e) {
+            if (attempt < maxAttempts) {
+                long delay = Math.min(maxDelayMillis, initialDelayMillis << Math.min(attempt - 1, 20));
+                schedule(() -> download(lifecycle, videoUrl, source, attempt + 1, result), delay);
+                return;
+            }
+            fail(source, (e instanceof FileNotFoundException ? "Video not found: " : "Cant download video: ")
+                    + videoUrl + " after " + attempt + " attempts", e, result);
+        } catch (RuntimeException e) {
+            fail(source, "Cant attach video " + videoUrl + ": " + e, e, result);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOG.warn("[ALLURE VIDEO ATTACHMENT ERROR] Cant delete {}", file, e);
+                }
+            }
+        }
+    }
+
+    private void fail(String source, String failure, Exception e, CompletableFuture<String> result) {
+        LOG.warn("[ALLURE VIDEO ATTACHMENT ERROR] {}", failure, e);
+        failures.add(failure);
+        if (resultsWriter != null) resultsWriter.notAttached(source, "Video not attached", failure);
+        result.completeExceptionally(e);
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        retries.schedule(() -> downloads.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Waits for outstanding downloads when the test plan finishes and records failed ones in
+     * {@code build/reports/video-attachment-failures.txt}.
+     */
+    public static class AwaitPending implements BeforeAllCallback {
+
+        @Override
+        public void beforeAll(ExtensionContext context) {
+            context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                    .getOrComputeIfAbsent(AwaitPending.class, key -> (ExtensionContext.Store.CloseableResource) () -> {
+                        if (!started) return;
+                        VideoAttachmentQueue queue = videoAttachments();
+                        queue.awaitCompletion(AWAIT_TIMEOUT);
+                        if (queue.getFailures().isEmpty()) return;
+                        try {
+                            Files.createDirectories(FAILURES_REPORT.getParent());
+                            Files.write(FAILURES_REPORT, queue.getFailures(), StandardCharsets.UTF_8);
+                        } catch (IOException e) {
+                            LOG.warn("[ALLURE VIDEO ATTACHMENT ERROR] Cant write {}", FAILURES_REPORT, e);
+                        }
+                    }, ExtensionContext.Store.CloseableResource.class);
+        }
+    }
+
+    private static class InitVideoAttachmentQueue {
+        private static final DriverConfig config = getConfig(DriverConfig.class);
+        private static final VideoAttachmentQueue videoAttachmentQueue = new VideoAttachmentQueue(
+                config.videoAttachThreads(),
+                config.videoAttachMaxAttempts(),
+                Duration.ofMillis(config.videoAttachInitialDelayMillis()),
+                Duration.ofMillis(config.videoAttachMaxDelayMillis()));
+    }
+}
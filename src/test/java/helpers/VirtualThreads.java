@@ -0,0 +1,54 @@
+package helpers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking API calls: one virtual thread per task when the tests run on Java 21 or newer
+ * (e.g. {@code gradle api -PvirtualThreads}), otherwise a fixed pool of daemon platform threads. The
+ * sources stay Java 8, so the virtual thread factory is looked up reflectively.
+ */
+public final class VirtualThreads {
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * @param platformThreads pool size when virtual threads are not available
+     */
+    public static ExecutorService newExecutor(String name, int platformThreads) {
+        if (isAvailable()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cant create virtual thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(platformThreads, daemon(name));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package models;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, column-per-field form of a {@link Books} catalog for tests that hold whole catalogs:
+ * pages as {@code int}, publish dates as epoch milliseconds, authors and publishers stored once and
+ * referenced by number, and an ISBN index instead of a list scan. Optionally all other repeated
+ * texts (sub titles, descriptions, websites) are stored once per catalog as well.
+ * <p>
+ * Missing pages are {@link #NO_PAGES}, missing publish dates {@link #NO_DATE}. A publish date is read
+ * with any offset or as a date only (midnight UTC); an unreadable one is logged with its row and stored
+ * as {@link #NO_DATE}.
+ */
+public final class BookCatalog {
+    public static final int NO_PAGES = Integer.MIN_VALUE;
+    public static final long NO_DATE = Long.MIN_VALUE;
+    /**
+     * {@code publish_date} as the BookStore API writes it, e.g. {@code 2020-06-04T08:48:39.000Z}.
+     */
+    public static final DateTimeFormatter PUBLISH_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSX").withZone(ZoneOffset.UTC);
+    private static final Logger LOG = LoggerFactory.getLogger(BookCatalog.class);
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final int size;
+    private final String[] isbns;
+    private final String[] titles;
+    private final String[] subTitles;
+    private final int[] authors;
+    private final long[] publishDates;
+    private final int[] publishers;
+    private final int[] pages;
+    private final String[] descriptions;
+    private final String[] websites;
+    private final String[] authorNames;
+    private final String[] publisherNames;
+    private final int[] isbnIndex;
+
+    private BookCatalog(Builder builder) {
+        this.size = builder.size;
+        this.isbns = Arrays.copyOf(builder.isbns, size);
+        this.titles = Arrays.copyOf(builder.titles, size);
+        this.subTitles = Arrays.copyOf(builder.subTitles, size);
+        this.authors = Arrays.copyOf(builder.authors, size);
+        this.publishDates = Arrays.copyOf(builder.publishDates, size);
+        this.publishers = Arrays.copyOf(builder.publishers, size);
+        this.pages = Arrays.copyOf(builder.pages, size);
+        this.descriptions = Arrays.copyOf(builder.descriptions, size);
+        this.websites = Arrays.copyOf(builder.websites, size);
+        this.authorNames = builder.authorNames.toArray(new String[0]);
+        this.publisherNames = builder.publisherNames.toArray(new String[0]);
+        this.isbnIndex = buildIsbnIndex();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static BookCatalog of(Books books) {
+        return of(books.getBooks(), false);
+    }
+
+    public static BookCatalog of(Iterable<Book> books, boolean dedupTexts) {
+        Builder builder = builder().dedupTexts(dedupTexts);
+        books.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Reads the {@code books} array of a {@code /BookStore/v1/Books} body token by token, without
+     * creating {@link Book} instances.
+     */
+    public static BookCatalog read(InputStream json, boolean dedupTexts) {
+        Builder builder = builder().dedupTexts(dedupTexts);
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a json object with \"books\" array");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean books = "books".equals(parser.getCurrentName());
+                if (parser.nextToken() == JsonToken.START_ARRAY && books) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        builder.add(parser);
+                    }
+                    return builder.build();
+                }
+                parser.skipChildren();
+            }
+            throw new IllegalArgumentException("No \"books\" array in json");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cant read books catalog", e);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the row of the book, or -1
+     */
+    public int indexOf(String isbn) {
+        int mask = isbnIndex.length - 1;
+        for (int slot = spread(isbn.hashCode()) & mask; isbnIndex[slot] != 0; slot = (slot + 1) & mask) {
+            int row = isbnIndex[slot] - 1;
+            if (isbn.equals(isbns[row])) return row;
+        }
+        return -1;
+    }
+
+    public String getIsbn(int row) {
+        return isbns[row];
+    }
+
+    public String getTitle(int row) {
+        return titles[row];
+    }
+
+    public String getSubTitle(int row) {
+        return subTitles[row];
+    }
+
+    public String getAuthor(int row) {
+        return authors[row] < 0 ? null : authorNames[authors[row]];
+    }
+
+    public long getPublishDateMillis(int row) {
+        return publishDates[row];
+    }
+
+    public String getPublisher(int row) {
+        return publishers[row] < 0 ? null : publisherNames[publishers[row]];
+    }
+
+    public int getPages(int row) {
+        return pages[row];
+    }
+
+    public String getDescription(int row) {
+        return descriptions[row];
+    }
+
+    public String getWebsite(int row) {
+        return websites[row];
+    }
+
+    public Book toBook(int row) {
+        Book book = new Book();
+        book.setIsbn(isbns[row]);
+        book.setTitle(titles[row]);
+        book.setSubTitle(subTitles[row]);
+        book.setAuthor(getAuthor(row));
+        book.setPublishDate(publishDates[row] == NO_DATE
+                ? null : PUBLISH_DATE_FORMAT.format(Instant.ofEpochMilli(publishDates[row])));
+        book.setPublisher(getPublisher(row));
+        book.setPages(pages[row] == NO_PAGES ? null : pages[row]);
+        book.setDescription(descriptions[row]);
+        book.setWebsite(websites[row]);
+        return book;
+    }
+
+    public Books toBooks() {
+        List<Book> books = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            books.add(toBook(row));
+        }
+        Books result = new Books();
+        result.setBooks(books);
+        return result;
+    }
+
+    private int[] buildIsbnIndex() {
+        int[] index = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) * 2];
+        int mask = index.length - 1;
+        for (int row = 0; row < size; row++) {
+            if (isbns[row] == null) continue;
+            int slot = spread(isbns[row].hashCode()) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = row + 1;
+        }
+        return index;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long parseDate(String date, int row) {
+        if (date == null) return NO_DATE;
+        try {
+            return OffsetDateTime.parse(date, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException notDateTime) {
+            try {
+                return LocalDate.parse(date, DateTimeFormatter.ISO_DATE).atStartOfDay(ZoneOffset.UTC)
+                        .toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                LOG.warn("[CATALOG] Row {}: unreadable publish_date \"{}\", stored without date", row, date);
+                return NO_DATE;
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final Map<String, String> texts = new HashMap<>();
+        private final Map<String, Integer> authorCodes = new HashMap<>();
+        private final Map<String, Integer> publisherCodes = new HashMap<>();
+        private final List<String> authorNames = new ArrayList<>();
+        private final List<String> publisherNames = new ArrayList<>();
+        private boolean dedupTexts;
+        private int size;
+        private String[] isbns = new String[16];
+        private String[] titles = new String[16];
+        private String[] subTitles = new String[16];
+        private int[] authors = new int[16];
+        private long[] publishDates = new long[16];
+        private int[] publishers = new int[16];
+        private int[] pages = new int[16];
+        private String[] descriptions = new String[16];
+        private String[] websites = new String[16];
+
+        private Builder() {
+        }
+
+        /**
+         * Stores equal sub titles, descriptions and websites once. Authors and publishers always are.
+         */
+        public Builder dedupTexts(boolean dedupTexts) {
+            this.dedupTexts = dedupTexts;
+            return this;
+        }
+
+        public Builder add(Book book) {
+            int row = nextRow();
+            isbns[row] = book.getIsbn();
+            titles[row] = book.getTitle();
+            subTitles[row] = text(book.getSubTitle());
+            authors[row] = code(book.getAuthor(), authorCodes, authorNames);
+            publishDates[row] = parseDate(book.getPublishDate(), row);
+            publishers[row] = code(book.getPublisher(), publisherCodes, publisherNames);
+            pages[row] = book.getPages() == null ? NO_PAGES : book.getPages();
+            descriptions[row] = text(book.getDescription());
+            websites[row] = text(book.getWebsite());
+            return this;
+        }
+
+        private void add(JsonParser parser) throws IOException {
+            int row = nextRow();
+            authors[row] = -1;
+            publishers[row] = -1;
+            publishDates[row] = NO_DATE;
+            pages[row] = NO_PAGES;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) continue;
+                switch (field) {
+                    case "isbn":
+                        isbns[row] = parser.getText();
+                        break;
+                    case "title":
+                        titles[row] = parser.getText();
+                        break;
+                    case "subTitle":
+                        subTitles[row] = text(parser.getText());
+                        break;
+                    case "author":
+                        authors[row] = code(parser.getText(), authorCodes, authorNames);
+                        break;
+                    case "publish_date":
+                        publishDates[row] = parseDate(parser.getText(), row);
+                        break;
+                    case "publisher":
+                        publishers[row] = code(parser.getText(), publisherCodes, publisherNames);
+                        break;
+                    case "pages":
+                        pages[row] = parser.getIntValue();
+                        break;
+                    case "description":
+                        descriptions[row] = text(parser.getText());
+                        break;
+                    case "website":
+                        websites[row] = text(parser.getText());
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        public BookCatalog build() {
+            return new BookCatalog(this);
+        }
+
+        private int nextRow() {
+            if (size == isbns.length) {
+                int capacity = size * 2;
+                isbns = Arrays.copyOf(isbns, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                subTitles = Arrays.copyOf(subTitles, capacity);
+                authors = Arrays.copyOf(authors, capacity);
+                publishDates = Arrays.copyOf(publishDates, capacity);
+                publishers = Arrays.copyOf(publishers, capacity);
+                pages = Arrays.copyOf(pages, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                websites = Arrays.copyOf(websites, capacity);
+            }
+            return size++;
+        }
+
+        private String text(String value) {
+            if (!dedupTexts || value == null) return value;
+            String known = texts.putIfAbsent(value, value);
+            return known == null ? value : known;
+        }
+
+        private static int code(String value, Map<String, Integer> codes, List<String> names) {
+            if (value == null) return -1;
+            return codes.computeIfAbsent(value, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+    }
+}
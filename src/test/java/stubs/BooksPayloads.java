@@ -0,0 +1,102 @@
+package stubs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import models.Book;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Enumeration;
+
+import static models.BookCatalog.PUBLISH_DATE_FORMAT;
+
+/**
+ * Deterministic {@code /BookStore/v1/Books} payloads matching {@code jsonSchemas/booklist_response.json}.
+ */
+public class BooksPayloads {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] AUTHORS = {"Richard E. Silverman", "Addy Osmani", "Glenn Block et al.",
+            "Axel Rauschmayer", "Kyle Simpson", "Marijn Haverbeke", "Nicholas C. Zakas", "Eric Elliott"};
+    private static final String[] PUBLISHERS = {"O'Reilly Media", "No Starch Press"};
+    private static final Instant FIRST_PUBLISH_DATE = Instant.parse("2014-04-01T08:48:39.000Z");
+
+    private BooksPayloads() {
+    }
+
+    public static Book book(int index) {
+        Book book = new Book();
+        book.setIsbn(String.valueOf(9781449325862L + index));
+        book.setTitle("Git Pocket Guide vol. " + index);
+        book.setSubTitle("A Working Introduction");
+        book.setAuthor(AUTHORS[index % AUTHORS.length]);
+        book.setPublishDate(PUBLISH_DATE_FORMAT.format(FIRST_PUBLISH_DATE.plus(index % 3650, ChronoUnit.DAYS)));
+        book.setPublisher(PUBLISHERS[index % PUBLISHERS.length]);
+        book.setPages(100 + index % 500);
+        book.setDescription("This pocket guide is the perfect on-the-job companion to Git, the distributed "
+                + "version control system. It provides a compact, readable introduction to Git for new users.");
+        book.setWebsite("http://chimera.labs.oreilly.com/books/1230000000561/index.html");
+        return book;
+    }
+
+    public static byte[] booksJson(int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 600 + 16);
+        writeBooksJson(count, out);
+        return out.toByteArray();
+    }
+
+    public static void writeBooksJson(int count, OutputStream out) {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("books");
+            for (int i = 0; i < count; i++) {
+                MAPPER.writeValue(generator, book(i));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Same content as {@link #booksJson(int)}, generated book by book while it is read, for catalogs
+     * too large to hold in memory.
+     */
+    public static InputStream booksJsonStream(int count) {
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= count;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int index = next++;
+                if (index == -1) return bytes("{\"books\":[");
+                if (index == count) return bytes("]}");
+                try {
+                    byte[] book = MAPPER.writeValueAsBytes(book(index));
+                    return index == 0
+                            ? new ByteArrayInputStream(book)
+                            : new SequenceInputStream(bytes(","), new ByteArrayInputStream(book));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    private static InputStream bytes(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
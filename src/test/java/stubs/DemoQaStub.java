@@ -0,0 +1,315 @@
+package stubs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import config.StubConfig;
+import models.AuthorisationResponse;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static config.ConfigRegistry.getConfig;
+
+/**
+ * In-process stand-in for the demoqa.com BookStore and Account APIs, bound to a random local port.
+ * Serves {@link BooksPayloads} catalogs of any size and can add latency and failures. Latency jitter
+ * and failures follow a seeded sequence, so a run with the same settings sees the same responses.
+ * Only the exact paths are served: other paths get {@code 404 Not Found} and other methods
+ * {@code 405 Method Not Allowed}. All threads are daemons, so a stub left running never keeps the JVM alive.
+ * <p>
+ * Tests use the shared instance with {@code -Dapi.url=stub}, configured by {@link StubConfig} and stopped
+ * by {@link StopShared} when the test plan finishes.
+ */
+public class DemoQaStub implements AutoCloseable {
+    public static final String BOOKS_PATH = "/BookStore/v1/Books";
+    private static final Logger LOG = LoggerFactory.getLogger(DemoQaStub.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_CACHED_BOOKS = 100_000;
+    // room for a thousand clients connecting at once
+    private static final int BACKLOG = 1024;
+    private static final byte[] INJECTED_FAULT = "{\"code\":\"1500\",\"message\":\"Injected stub failure\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND = "{\"code\":\"404\",\"message\":\"Not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] METHOD_NOT_ALLOWED = "{\"code\":\"405\",\"message\":\"Method not allowed\"}".getBytes(StandardCharsets.UTF_8);
+    private static volatile boolean sharedStarted;
+
+    static {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        // the default of 200 closes pooled client connections under load, failing non-retried POSTs
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(BACKLOG));
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(daemon("demoqa-stub"));
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Map<Integer, byte[]> booksBodies = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Duration tokenLifetime = Duration.ofHours(1);
+    private volatile Duration responseDelay = Duration.ZERO;
+    private volatile Duration latencyJitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile long seed = 42;
+    private volatile int books = 8;
+
+    private DemoQaStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BACKLOG);
+        server.createContext(GENERATE_TOKEN_PATH, handler(GENERATE_TOKEN_PATH, "POST", this::generateToken));
+        server.createContext(BOOKS_PATH, handler(BOOKS_PATH, "GET", this::listBooks));
+        server.setExecutor(executor);
+    }
+
+    public static DemoQaStub start() throws IOException {
+        DemoQaStub stub = new DemoQaStub();
+        // the server's dispatcher thread is a daemon if the thread starting the server is one
+        Thread starter = daemon("demoqa-stub-start").newThread(stub.server::start);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stub.close();
+            throw new InterruptedIOException("Interrupted starting BookStore stub");
+        }
+        return stub;
+    }
+
+    public static DemoQaStub start(StubConfig config) throws IOException {
+        return start()
+                .withBooks(config.books())
+                .withResponseDelay(Duration.ofMillis(config.latencyMillis()))
+                .withLatencyJitter(Duration.ofMillis(config.latencyJitterMillis()))
+                .withErrorRate(config.errorRate())
+                .withSeed(config.seed());
+    }
+
+    public static DemoQaStub shared() {
+        return InitDemoQaStub.stub;
+    }
+
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public int getTokenRequests() {
+        return getRequests(GENERATE_TOKEN_PATH);
+    }
+
+    public int getRequests(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    public DemoQaStub withTokenLifetime(Duration tokenLifetime) {
+        this.tokenLifetime = tokenLifetime;
+        return this;
+    }
+
+    public DemoQaStub withResponseDelay(Duration responseDelay) {
+        this.responseDelay = responseDelay;
+        return this;
+    }
+
+    /**
+     * Adds up to {@code latencyJitter} to the response delay of each request.
+     */
+    public DemoQaStub withLatencyJitter(Duration latencyJitter) {
+        this.latencyJitter = latencyJitter;
+        return this;
+    }
+
+    /**
+     * Answers this share of requests, between 0 and 1, with {@code 503 Service Unavailable}.
+     */
+    public DemoQaStub withErrorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) throw new IllegalArgumentException("Error rate must be in [0, 1]");
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public DemoQaStub withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Number of books in {@code /BookStore/v1/Books}, about 560 bytes each.
+     */
+    public DemoQaStub withBooks(int books) {
+        this.books = books;
+        return this;
+    }
+
+    private HttpHandler handler(String path, String method, HttpHandler endpoint) {
+        return exchange -> {
+            // contexts match by prefix
+            if (!path.equals(exchange.getRequestURI().getPath())) {
+                reject(exchange, 404, NOT_FOUND);
+                return;
+            }
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Allow", method);
+                reject(exchange, 405, METHOD_NOT_ALLOWED);
+                return;
+            }
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            long random = mix(seed + sequence.getAndIncrement());
+            try {
+                delay(random);
+                if (errorRate > 0 && (random >>> 11) * 0x1.0p-53 < errorRate) {
+                    drain(exchange);
+                    sendJson(exchange, 503, INJECTED_FAULT);
+                } else {
+                    endpoint.handle(exchange);
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private void generateToken(HttpExchange exchange) throws IOException {
+        JsonNode credentials = MAPPER.readTree(exchange.getRequestBody());
+        AuthorisationResponse response = new AuthorisationResponse();
+        if (credentials.path("userName").asText().isEmpty() || credentials.path("password").asText().isEmpty()) {
+            response.setStatus("Failed");
+            response.setResult("User authorization failed.");
+        } else {
+            response.setToken(UUID.randomUUID().toString());
+            response.setExpires(Instant.now().plus(tokenLifetime).toString());
+            response.setStatus("Success");
+            response.setResult("User authorized successfully.");
+        }
+        sendJson(exchange, 200, MAPPER.writeValueAsBytes(response));
+    }
+
+    private void listBooks(HttpExchange exchange) throws IOException {
+        int count = books;
+        if (count > MAX_CACHED_BOOKS) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (InputStream body = BooksPayloads.booksJsonStream(count);
+                 OutputStream out = exchange.getResponseBody()) {
+                byte[] chunk = new byte[16 * 1024];
+                int read;
+                while ((read = body.read(chunk)) != -1) {
+                    out.write(chunk, 0, read);
+                }
+            }
+            return;
+        }
+        sendJson(exchange, 200, booksBodies.computeIfAbsent(count, BooksPayloads::booksJson));
+    }
+
+    private void delay(long random) {
+        long jitter = latencyJitter.toMillis();
+        long millis = responseDelay.toMillis() + (jitter > 0 ? Math.floorMod(random, jitter + 1) : 0);
+        if (millis == 0) return;
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * SplitMix64 finalizer: a well spread value for every request number.
+     */
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void reject(HttpExchange exchange, int status, byte[] body) throws IOException {
+        try {
+            drain(exchange);
+            sendJson(exchange, status, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] chunk = new byte[8192];
+            while (body.read(chunk) != -1) {
+                // discard
+            }
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Stops the shared stub, if a test started it, once the test plan has finished.
+     */
+    public static class StopShared implements TestExecutionListener {
+
+        @Override
+        public void testPlanExecutionFinished(TestPlan testPlan) {
+            if (!sharedStarted) return;
+            shared().close();
+            LOG.info("[STUB] BookStore stub stopped");
+        }
+    }
+
+    private static class InitDemoQaStub {
+        private static final DemoQaStub stub = startShared();
+
+        private static DemoQaStub startShared() {
+            try {
+                DemoQaStub stub = start(getConfig(StubConfig.class));
+                sharedStarted = true;
+                LOG.info("[STUB] BookStore stub started on {}", stub.getUrl());
+                return stub;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cant start BookStore stub", e);
+            }
+        }
+    }
+}
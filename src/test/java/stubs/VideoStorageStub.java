@@ -0,0 +1,90 @@
+package stubs;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Selenoid video storage: {@code /video/<sessionId>.mp4} answers 404
+ * until the registered delay has passed, as a recording still being finalized would.
+ */
+public class VideoStorageStub implements AutoCloseable {
+    private static final String VIDEO_PATH = "/video/";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Video> videos = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private VideoStorageStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(VIDEO_PATH, this::serveVideo);
+        server.setExecutor(executor);
+    }
+
+    public static VideoStorageStub start() throws IOException {
+        VideoStorageStub stub = new VideoStorageStub();
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * Base URL in the {@code video.storage} format: append {@code <sessionId>.mp4}.
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + VIDEO_PATH;
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public VideoStorageStub addVideo(String sessionId, int sizeBytes, Duration availableAfter) {
+        videos.put(sessionId + ".mp4", new Video(sizeBytes, System.nanoTime() + availableAfter.toNanos()));
+        return this;
+    }
+
+    private void serveVideo(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Video video = videos.get(exchange.getRequestURI().getPath().substring(VIDEO_PATH.length()));
+        if (video == null || System.nanoTime() < video.availableAt) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "video/mp4");
+        exchange.sendResponseHeaders(200, video.size);
+        byte[] chunk = new byte[8192];
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (long left = video.size; left > 0; left -= chunk.length) {
+                out.write(chunk, 0, (int) Math.min(chunk.length, left));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static class Video {
+        private final long size;
+        private final long availableAt;
+
+        Video(long size, long availableAt) {
+            this.size = size;
+            this.availableAt = availableAt;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import helpers.BatchingResultsWriter;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.junitplatform.AllureJunitPlatform;
+import io.qameta.allure.model.Allure2ModelJackson;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Runs a test class in a launcher of its own, reported by Allure through {@code writer} instead of the
+ * results of the running suite, for tests of what ends up in the Allure results.
+ */
+final class AllureRun {
+    private static final ObjectMapper MAPPER = Allure2ModelJackson.createMapper();
+
+    private AllureRun() {
+    }
+
+    static void run(Class<?> testClass, BatchingResultsWriter writer) {
+        AllureLifecycle suiteLifecycle = Allure.getLifecycle();
+        AllureLifecycle lifecycle = new AllureLifecycle(writer);
+        // helpers attach through Allure.getLifecycle()
+        Allure.setLifecycle(lifecycle);
+        try {
+            LauncherFactory.create(LauncherConfig.builder()
+                    .enableTestExecutionListenerAutoRegistration(false)
+                    .enablePostDiscoveryFilterAutoRegistration(false)
+                    .addTestExecutionListeners(new AllureJunitPlatform(lifecycle))
+                    .build())
+                    .execute(request().selectors(selectClass(testClass)).build());
+        } finally {
+            Allure.setLifecycle(suiteLifecycle);
+        }
+    }
+
+    /**
+     * Attachments of the {@code @BeforeEach} and {@code @AfterEach} fixtures written to {@code results}.
+     */
+    static List<Attachment> fixtureAttachments(Path results) throws IOException {
+        List<Attachment> attachments = new ArrayList<>();
+        for (Path file : files(results, "-container.json")) {
+            TestResultContainer container = MAPPER.readValue(file.toFile(), TestResultContainer.class);
+            container.getBefores().forEach(fixture -> attachments.addAll(fixture.getAttachments()));
+            container.getAfters().forEach(fixture -> attachments.addAll(fixture.getAttachments()));
+        }
+        return attachments;
+    }
+
+    static List<Path> files(Path results, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(results)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).collect(Collectors.toList());
+        }
+    }
+}
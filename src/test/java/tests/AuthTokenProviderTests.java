@@ -0,0 +1,135 @@
+package tests;
+
+import api.AuthTokenProvider;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import models.AuthorisationResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Auth token cache tests on local stub")
+public class AuthTokenProviderTests {
+    private static final String LOGIN = "alex";
+    private static final String PASSWORD = "W1_#zqwerty";
+
+    private DemoQaStub stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = DemoQaStub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Token is generated once and reused")
+    void tokenIsReusedTest() {
+        AuthTokenProvider provider = new AuthTokenProvider(stub.getUrl(), Duration.ofMinutes(1), Clock.systemUTC());
+
+        String token = provider.getAuthorisation(LOGIN, PASSWORD).getToken();
+        for (int i = 0; i < 5; i++) {
+            assertThat(provider.getAuthorisation(LOGIN, PASSWORD).getToken()).isEqualTo(token);
+        }
+        assertThat(stub.getTokenRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Concurrent callers wait for a single token request")
+    void concurrentCallersShareTokenTest() throws Exception {
+        stub.withResponseDelay(Duration.ofMillis(300));
+        AuthTokenProvider provider = new AuthTokenProvider(stub.getUrl(), Duration.ofMinutes(1), Clock.systemUTC());
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<String>> tokens = IntStream.range(0, 16)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return provider.getAuthorisation(LOGIN, PASSWORD).getToken();
+                    }))
+                    .collect(Collectors.toList());
+            start.countDown();
+
+            String token = tokens.get(0).get();
+            for (Future<String> future : tokens) {
+                assertThat(future.get()).isEqualTo(token);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(stub.getTokenRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Token is refreshed ahead of expiry")
+    void tokenIsRefreshedAheadOfExpiryTest() {
+        stub.withTokenLifetime(Duration.ofMinutes(10));
+        MutableClock clock = new MutableClock(Instant.now());
+        AuthTokenProvider provider = new AuthTokenProvider(stub.getUrl(), Duration.ofMinutes(1), clock);
+
+        AuthorisationResponse first = provider.getAuthorisation(LOGIN, PASSWORD);
+        clock.advance(Duration.ofMinutes(8));
+        assertThat(provider.getAuthorisation(LOGIN, PASSWORD).getToken()).isEqualTo(first.getToken());
+        assertThat(stub.getTokenRequests()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(90));
+        assertThat(provider.getAuthorisation(LOGIN, PASSWORD).getToken()).isNotEqualTo(first.getToken());
+        assertThat(stub.getTokenRequests()).isEqualTo(2);
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
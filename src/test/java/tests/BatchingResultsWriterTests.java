@@ -0,0 +1,141 @@
+package tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import helpers.BatchingResultsWriter;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.model.Allure2ModelJackson;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Batching Allure results writer tests")
+public class BatchingResultsWriterTests {
+    private static final ObjectMapper MAPPER = Allure2ModelJackson.createMapper();
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Equal attachments of results, steps and fixtures are written once")
+    void duplicateAttachmentsAreWrittenOnceTest() throws IOException {
+        Path results = Files.createTempDirectory("allure-results-");
+        TestResult first = new TestResult().setUuid(uuid());
+        TestResult second = new TestResult().setUuid(uuid());
+        TestResultContainer container = new TestResultContainer().setUuid(uuid());
+        try (BatchingResultsWriter writer = new BatchingResultsWriter(results, 64, 1024 * 1024, 0, 100)) {
+            first.getAttachments().add(attach(writer, "Response body", "{\"books\":[]}"));
+            second.getSteps().add(new StepResult().setName("GET /BookStore/v1/Books")
+                    .setAttachments(list(attach(writer, "Response body", "{\"books\":[]}"))));
+            container.getAfters().add(new FixtureResult().setName("addAttachments")
+                    .setAttachments(list(attach(writer, "Browser console logs", "{\"books\":[]}"))));
+            writer.write(first);
+            writer.write(second);
+            writer.write(container);
+        }
+
+        assertThat(AllureRun.files(results, "-attachment.json")).hasSize(1);
+        String stored = AllureRun.files(results, "-attachment.json").get(0).getFileName().toString();
+        assertThat(read(results, first).getAttachments().get(0).getSource()).isEqualTo(stored);
+        assertThat(read(results, second).getSteps().get(0).getAttachments().get(0).getSource()).isEqualTo(stored);
+        assertThat(AllureRun.fixtureAttachments(results)).extracting(Attachment::getSource).containsExactly(stored);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Batched results point to their attachments as stored")
+    void resultsFollowTheirAttachmentsTest() throws Exception {
+        Path results = Files.createTempDirectory("allure-results-");
+        List<TestResult> written = new ArrayList<>();
+        try (BatchingResultsWriter writer = new BatchingResultsWriter(results, 8, 1024 * 1024, 64, 0)) {
+            for (int i = 0; i < 100; i++) {
+                TestResult result = new TestResult().setUuid(uuid());
+                result.getAttachments().add(attach(writer, "Response body", body(i)));
+                writer.write(result);
+                written.add(result);
+            }
+            assertThat(writer.flush(Duration.ofSeconds(10))).isTrue();
+            assertThat(writer.getFailures()).isZero();
+        }
+
+        assertThat(AllureRun.files(results, "-result.json")).hasSize(100);
+        for (TestResult result : written) {
+            Attachment stored = read(results, result).getAttachments().get(0);
+            // gzipped: the result is renamed after its attachment is stored
+            assertThat(stored.getSource()).endsWith(".json.gz");
+            assertThat(stored.getType()).isEqualTo("application/gzip");
+            assertThat(results.resolve(stored.getSource())).exists();
+        }
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Closing writes queued results and results still waiting for an attachment")
+    void closeWritesEverythingTest() throws IOException {
+        Path results = Files.createTempDirectory("allure-results-");
+        TestResult waiting = new TestResult().setUuid(uuid());
+        BatchingResultsWriter writer = new BatchingResultsWriter(results, 64, 1024 * 1024, 0, 0);
+        String video = uuid() + "-attachment.mp4";
+        writer.expect(video);
+        waiting.getAttachments().add(new Attachment().setName("Video").setSource(video).setType("video/mp4"));
+        writer.write(waiting);
+        for (int i = 0; i < 50; i++) {
+            writer.write(new TestResult().setUuid(uuid()));
+        }
+        assertThat(results.resolve(waiting.getUuid() + "-result.json")).doesNotExist();
+
+        writer.close();
+
+        assertThat(AllureRun.files(results, "-result.json")).hasSize(51);
+        assertThat(read(results, waiting).getAttachments()).extracting(Attachment::getSource).containsExactly(video);
+        // after close nothing is queued any more
+        TestResult late = new TestResult().setUuid(uuid());
+        writer.write(late);
+        assertThat(results.resolve(late.getUuid() + "-result.json")).exists();
+    }
+
+    private static String body(int i) {
+        StringBuilder body = new StringBuilder("{\"books\":[");
+        for (int book = 0; book < 10; book++) {
+            body.append(book == 0 ? "" : ",").append("{\"isbn\":\"").append(i).append('-').append(book).append("\"}");
+        }
+        return body.append("]}").toString();
+    }
+
+    private static Attachment attach(BatchingResultsWriter writer, String name, String content) {
+        String source = uuid() + "-attachment.json";
+        writer.write(source, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        return new Attachment().setName(name).setSource(source).setType("application/json");
+    }
+
+    private static TestResult read(Path results, TestResult result) throws IOException {
+        return MAPPER.readValue(results.resolve(result.getUuid() + "-result.json").toFile(), TestResult.class);
+    }
+
+    private static List<Attachment> list(Attachment attachment) {
+        return new ArrayList<>(Collections.singletonList(attachment));
+    }
+
+    private static String uuid() {
+        return UUID.randomUUID().toString();
+    }
+}
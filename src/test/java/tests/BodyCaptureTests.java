@@ -0,0 +1,171 @@
+package tests;
+
+import api.ApiSpecs;
+import filters.AllureHttpFilter;
+import filters.BodyCapture;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import models.Books;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import stubs.DemoQaStub;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static stubs.DemoQaStub.BOOKS_PATH;
+
+@DisplayName("Size-capped body capture tests")
+public class BodyCaptureTests {
+    private static final int HEAD = 16;
+    private static final int TAIL = 8;
+    private static final int MAX = 64;
+
+    @BeforeAll
+    static void setUp() {
+        ApiSpecs.install();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Body of max bytes is kept in memory in full")
+    void bodyOfMaxBytesIsNotSpilledTest() throws Exception {
+        Path spillDir = Files.createTempDirectory("body-capture-");
+        String body = body(MAX);
+
+        BodyCapture.CapturedBody captured = new BodyCapture(HEAD, TAIL, MAX, spillDir).capture(bytes(body));
+
+        assertThat(captured.isTruncated()).isFalse();
+        assertThat(captured.getSize()).isEqualTo(MAX);
+        assertThat(captured.getSha256()).isEqualTo(sha256(body));
+        assertThat(captured.preview()).endsWith("]\n" + body);
+        assertThat(read(captured)).isEqualTo(body);
+        assertThat(spillFiles(spillDir)).isEmpty();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Body of max + 1 bytes is spilled and keeps head and tail")
+    void bodyOverMaxBytesIsSpilledTest() throws Exception {
+        Path spillDir = Files.createTempDirectory("body-capture-");
+        String body = body(MAX + 1);
+
+        BodyCapture.CapturedBody captured = new BodyCapture(HEAD, TAIL, MAX, spillDir).capture(bytes(body));
+
+        assertThat(captured.isTruncated()).isTrue();
+        assertThat(captured.getSize()).isEqualTo(MAX + 1);
+        assertThat(captured.getSha256()).isEqualTo(sha256(body));
+        assertThat(captured.preview("attachment")).isEqualTo(preview(body, "attachment"));
+        assertThat(spillFiles(spillDir)).containsExactly(captured.getSpill());
+        assertThat(read(captured)).isEqualTo(body);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Tail is kept in order when read in chunks smaller than the tail")
+    void chunksSmallerThanTailTest() throws Exception {
+        Path spillDir = Files.createTempDirectory("body-capture-");
+        String body = body(5 * MAX + 3);
+
+        BodyCapture.CapturedBody captured = new BodyCapture(HEAD, TAIL, MAX, spillDir)
+                .capture(new ChunkedInputStream(bytes(body), TAIL / 2 - 1));
+
+        assertThat(captured.getSize()).isEqualTo(body.length());
+        assertThat(captured.getSha256()).isEqualTo(sha256(body));
+        assertThat(captured.preview("attachment")).isEqualTo(preview(body, "attachment"));
+        assertThat(read(captured)).isEqualTo(body);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Captured response body is still read in full by the test")
+    void capturedResponseIsReadableTest() throws Exception {
+        Path spillDir = Files.createTempDirectory("body-capture-");
+        AllureHttpFilter filter = new AllureHttpFilter("request.ftl", "response.ftl",
+                new BodyCapture(1024, 256, 4096, spillDir));
+
+        try (DemoQaStub stub = DemoQaStub.start().withBooks(200)) {
+            Books books = given().filter(filter).get(stub.getUrl() + BOOKS_PATH).then()
+                    .statusCode(200)
+                    .extract().as(Books.class);
+
+            assertThat(books.getBooks()).hasSize(200);
+        }
+        // attached to this test, so the spill file goes once the body is read
+        assertThat(spillFiles(spillDir)).isEmpty();
+    }
+
+    private static String body(int size) {
+        return IntStream.range(0, size).mapToObj(i -> String.valueOf((char) ('a' + i % 26)))
+                .collect(Collectors.joining());
+    }
+
+    private static String preview(String body, String fullBody) throws Exception {
+        return "[" + body.length() + " bytes, sha256 " + sha256(body) + "]\n" + body.substring(0, HEAD)
+                + "\n\n... " + (body.length() - HEAD - TAIL) + " bytes omitted, full body: " + fullBody + " ...\n\n"
+                + body.substring(body.length() - TAIL);
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(BodyCapture.CapturedBody captured) throws IOException {
+        try (InputStream in = captured.open()) {
+            StringBuilder body = new StringBuilder();
+            int read;
+            while ((read = in.read()) != -1) {
+                body.append((char) read);
+            }
+            return body.toString();
+        }
+    }
+
+    private static String sha256(String body) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes(body))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static List<Path> spillFiles(Path spillDir) throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns at most {@code chunk} bytes per read, like a slow network stream.
+     */
+    private static class ChunkedInputStream extends ByteArrayInputStream {
+        private final int chunk;
+
+        ChunkedInputStream(byte[] bytes, int chunk) {
+            super(bytes);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
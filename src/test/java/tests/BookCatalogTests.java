@@ -0,0 +1,76 @@
+package tests;
+
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import models.Book;
+import models.BookCatalog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import stubs.BooksPayloads;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Columnar book catalog tests on generated books")
+public class BookCatalogTests {
+    private static final int BOOKS = 500;
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Catalog read from json converts back to equal books")
+    void catalogRoundTripTest() {
+        BookCatalog catalog = BookCatalog.read(BooksPayloads.booksJsonStream(BOOKS), true);
+
+        assertThat(catalog.size()).isEqualTo(BOOKS);
+        assertThat(catalog.toBooks().getBooks())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(books());
+        assertThat(catalog.getDescription(1)).isSameAs(catalog.getDescription(2));
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Book is found by ISBN")
+    void isbnLookupTest() {
+        BookCatalog catalog = BookCatalog.of(books(), false);
+
+        for (int row = 0; row < BOOKS; row++) {
+            assertThat(catalog.indexOf(catalog.getIsbn(row))).isEqualTo(row);
+        }
+        assertThat(catalog.indexOf("0000000000000")).isEqualTo(-1);
+        assertThat(catalog.getPages(7)).isEqualTo(BooksPayloads.book(7).getPages());
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Publish dates with an offset or without time are read, unreadable ones skipped")
+    void publishDateFormatsTest() {
+        String json = "{\"books\":["
+                + "{\"isbn\":\"1\",\"publish_date\":\"2020-06-04T10:48:39.000+02:00\"},"
+                + "{\"isbn\":\"2\",\"publish_date\":\"2020-06-04\"},"
+                + "{\"isbn\":\"3\",\"publish_date\":\"June 2020\"},"
+                + "{\"isbn\":\"4\",\"publish_date\":\"2020-06-04T08:48:39.000Z\"}]}";
+
+        BookCatalog catalog = BookCatalog.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertThat(catalog.size()).isEqualTo(4);
+        assertThat(catalog.getPublishDateMillis(0)).isEqualTo(Instant.parse("2020-06-04T08:48:39Z").toEpochMilli());
+        assertThat(catalog.getPublishDateMillis(1)).isEqualTo(Instant.parse("2020-06-04T00:00:00Z").toEpochMilli());
+        assertThat(catalog.getPublishDateMillis(2)).isEqualTo(BookCatalog.NO_DATE);
+        assertThat(catalog.getPublishDateMillis(3)).isEqualTo(catalog.getPublishDateMillis(0));
+    }
+
+    private static List<Book> books() {
+        return IntStream.range(0, BOOKS).mapToObj(BooksPayloads::book).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package tests;
+
+import config.LoadConfig;
+import helpers.LoadGenerator;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static api.ApiSpecs.requestSpec;
+import static config.ConfigRegistry.getConfig;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * {@link BookStoreTests} request flows replayed at {@code load.rate} calls per second, run with
+ * {@code gradle load} (against the local stub unless {@code -Dapi.url} is given).
+ */
+@DisplayName("BookStore REST API load tests")
+public class BookStoreLoadTests extends TestBase {
+
+    @Test
+    @Tag("load")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Load: GET Books")
+    void getBooksLoadTest() throws InterruptedException {
+        runLoad("GET Books", () -> given(requestSpec())
+                .get("/BookStore/v1/Books")
+                .then()
+                .statusCode(200)
+                .body("books", hasSize(greaterThan(0))));
+    }
+
+    @Test
+    @Tag("load")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Load: POST Generate user token")
+    void generateTokenLoadTest() throws InterruptedException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userName", TestData.getUserLogin());
+        data.put("password", TestData.getUserPassword());
+
+        runLoad("POST GenerateToken", () -> given(requestSpec())
+                .contentType(JSON)
+                .body(data)
+                .post("/Account/v1/GenerateToken")
+                .then()
+                .statusCode(200)
+                .body("status", is("Success")));
+    }
+
+    private static void runLoad(String name, Runnable scenario) throws InterruptedException {
+        LoadConfig config = getConfig(LoadConfig.class);
+        Allure.parameter("Target rate, calls/s", config.ratePerSecond());
+        LoadGenerator.LoadResult result = LoadGenerator.fromConfig(config).run(name, scenario);
+        result.attachToAllure();
+
+        assertThat(result.getRequests()).isPositive();
+        assertThat(result.getErrorRate()).isLessThanOrEqualTo(config.maxErrorRate());
+    }
+}
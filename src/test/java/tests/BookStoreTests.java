@@ -1,35 +1,36 @@
 package tests;
 
+import helpers.IncrementalSelection.ReadOnly;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.restassured.AllureRestAssured;
 import models.AuthorisationResponse;
-import models.Books;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static api.AuthTokenProvider.tokenRequestBody;
+import static api.JsonSchemaRegistry.matchesCachedJsonSchemaInClasspath;
+import static api.StreamingExtractor.books;
 import static filters.CustomLogFilter.customLogFilter;
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 
-@DisplayName("REST API https://demoqa.com tests")
-public class BookStoreTests {
+@DisplayName("BookStore REST API tests")
+public class BookStoreTests extends TestBase {
     @Test
+    @ReadOnly("/BookStore/v1/Books")
     @Tag("api")
     @Severity(SeverityLevel.MINOR)
     @DisplayName("Get test (GET Books)")
     void noLogsTest() {
         given()
-                .get("https://demoqa.com/BookStore/v1/Books")
+                .get("/BookStore/v1/Books")
                 .then()
                 .body("books", hasSize(greaterThan(0)));
     }
@@ -41,7 +42,7 @@ public class BookStoreTests {
     void withAllLogsTest() {
         given()
                 .log().all()
-                .get("https://demoqa.com/BookStore/v1/Books")
+                .get("/BookStore/v1/Books")
                 .then()
                 .log().all()
                 .body("books", hasSize(greaterThan(0)));
@@ -55,7 +56,7 @@ public class BookStoreTests {
         given()
                 .log().uri()
                 .log().body()
-                .get("https://demoqa.com/BookStore/v1/Books")
+                .get("/BookStore/v1/Books")
                 .then()
                 .log().body()
                 .body("books", hasSize(greaterThan(0)));
@@ -68,11 +69,11 @@ public class BookStoreTests {
     void withSomePostTest() {
         given()
                 .contentType(JSON)
-                .body("{ \"userName\": \"alex\", \"password\": \"W1_#zqwerty\" }")
+                .body(tokenRequestBody(TestData.getUserLogin(), TestData.getUserPassword()))
                 .when()
                 .log().uri()
                 .log().body()
-                .post("https://demoqa.com/Account/v1/GenerateToken")
+                .post("/Account/v1/GenerateToken")
                 .then()
                 .log().body()
                 .body("status", is("Success"))
@@ -82,20 +83,16 @@ public class BookStoreTests {
     @Test
     @Tag("api")
     @Severity(SeverityLevel.NORMAL)
-    @DisplayName("Allure listener test with map (POST Generate user token)")
+    @DisplayName("Allure listener test (POST Generate user token)")
     void withAllureListenerTest() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("userName", "alex");
-        data.put("password", "W1_#zqwerty");
-
         given()
                 .contentType(JSON)
                 .filter(new AllureRestAssured())
-                .body(data)
+                .body(tokenRequestBody(TestData.getUserLogin(), TestData.getUserPassword()))
                 .when()
                 .log().uri()
                 .log().body()
-                .post("https://demoqa.com/Account/v1/GenerateToken")
+                .post("/Account/v1/GenerateToken")
                 .then()
                 .log().body()
                 .body("status", is("Success"))
@@ -105,20 +102,16 @@ public class BookStoreTests {
     @Test
     @Tag("api")
     @Severity(SeverityLevel.NORMAL)
-    @DisplayName("Custom filter test with map (POST Generate user token)")
+    @DisplayName("Custom filter test (POST Generate user token)")
     void withCustomFilterTest() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("userName", "alex");
-        data.put("password", "W1_#zqwerty");
-
         given()
                 .contentType(JSON)
                 .filter(customLogFilter().withCustomTemplates())
-                .body(data)
+                .body(tokenRequestBody(TestData.getUserLogin(), TestData.getUserPassword()))
                 .when()
                 .log().uri()
                 .log().body()
-                .post("https://demoqa.com/Account/v1/GenerateToken")
+                .post("/Account/v1/GenerateToken")
                 .then()
                 .log().body()
                 .body("status", is("Success"))
@@ -128,21 +121,17 @@ public class BookStoreTests {
     @Test
     @Tag("api")
     @Severity(SeverityLevel.NORMAL)
-    @DisplayName("AssertJ test with map (POST Generate user token)")
+    @DisplayName("AssertJ test (POST Generate user token)")
     void withAssertJTest() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("userName", "alex");
-        data.put("password", "W1_#zqwerty");
-
         String response =
                 given()
                         .contentType(JSON)
                         .filter(customLogFilter().withCustomTemplates())
-                        .body(data)
+                        .body(tokenRequestBody(TestData.getUserLogin(), TestData.getUserPassword()))
                         .when()
                         .log().uri()
                         .log().body()
-                        .post("https://demoqa.com/Account/v1/GenerateToken")
+                        .post("/Account/v1/GenerateToken")
                         .then()
                         .log().body()
                         .extract().asString();
@@ -153,45 +142,43 @@ public class BookStoreTests {
     @Test
     @Tag("api")
     @Severity(SeverityLevel.CRITICAL)
-    @DisplayName("AssertJ model test with map (POST Generate user token)")
+    @DisplayName("AssertJ model test (POST Generate user token)")
     void withModelTest() {
-        Map<String, Object> data = new HashMap<>();
-        data.put("userName", "alex");
-        data.put("password", "W1_#zqwerty");
         AuthorisationResponse response =
                 given()
                         .contentType(JSON)
                         .filter(customLogFilter().withCustomTemplates())
-                        .body(data)
+                        .body(tokenRequestBody(TestData.getUserLogin(), TestData.getUserPassword()))
                         .when()
-                        .log().uri()
-                        .log().body()
-                        .post("https://demoqa.com/Account/v1/GenerateToken")
+                        .post(GENERATE_TOKEN_PATH)
                         .then()
-                        .log().body()
+                        .statusCode(200)
                         .extract().as(AuthorisationResponse.class);
         assertThat(response.getStatus()).contains("Success");
         assertThat(response.getResult()).contains("User authorized successfully.");
-
+        assertThat(response.getToken()).isNotEmpty();
     }
 
     @Test
+    @ReadOnly("/BookStore/v1/Books")
     @Tag("api")
     @Severity(SeverityLevel.CRITICAL)
     @DisplayName("Model test (GET Books)")
     void booksModelTest() {
-        Books books =
+        long count = books().forEach(
                 given()
                         .log().uri()
-                        .log().body()
-                        .get("https://demoqa.com/BookStore/v1/Books")
-                        .then()
-                        .log().body()
-                        .extract().as(Books.class);
-        System.out.println(books);
+                        .get("/BookStore/v1/Books"),
+                book -> {
+                    assertThat(book.getIsbn()).isNotEmpty();
+                    assertThat(book.getTitle()).isNotEmpty();
+                    assertThat(book.getPages()).isPositive();
+                });
+        assertThat(count).isPositive();
     }
 
     @Test
+    @ReadOnly(value = "/BookStore/v1/Books", resources = "jsonSchemas/booklist_response.json")
     @Tag("api")
     @Severity(SeverityLevel.BLOCKER)
     @DisplayName("Json schema test (GET Books schema)")
@@ -199,9 +186,9 @@ public class BookStoreTests {
             given()
                 .log().uri()
                 .log().body()
-                .get("https://demoqa.com/BookStore/v1/Books")
+                .get("/BookStore/v1/Books")
                 .then()
                 .log().body()
-                .body(matchesJsonSchemaInClasspath("jsonSchemas/booklist_response.json"));
+                .body(matchesCachedJsonSchemaInClasspath("jsonSchemas/booklist_response.json"));
     }
 }
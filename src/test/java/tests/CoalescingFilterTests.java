@@ -0,0 +1,121 @@
+package tests;
+
+import api.ApiSpecs;
+import filters.CoalescingFilter;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static stubs.DemoQaStub.BOOKS_PATH;
+
+@DisplayName("Request coalescing tests on local stub")
+public class CoalescingFilterTests {
+    private DemoQaStub stub;
+
+    @BeforeAll
+    static void setUp() {
+        ApiSpecs.install();
+    }
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = DemoQaStub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Concurrent identical GETs share one upstream call")
+    void concurrentGetsAreCoalescedTest() throws Exception {
+        stub.withResponseDelay(Duration.ofMillis(300));
+        CoalescingFilter filter = new CoalescingFilter(0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Response>> responses = IntStream.range(0, 8)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return given().filter(filter).get(stub.getUrl() + BOOKS_PATH);
+                    }))
+                    .collect(Collectors.toList());
+            start.countDown();
+
+            String body = responses.get(0).get().asString();
+            for (Future<Response> response : responses) {
+                assertThat(response.get().getStatusCode()).isEqualTo(200);
+                assertThat(response.get().jsonPath().getList("books")).isNotEmpty();
+                assertThat(response.get().asString()).isEqualTo(body);
+            }
+            assertThat(responses.stream().map(this::get).distinct().count()).isEqualTo(8);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(stub.getRequests(BOOKS_PATH)).isLessThan(8);
+        assertThat(filter.getUpstreamRequests() + filter.getCoalescedRequests()).isEqualTo(8);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Cached GET is served until its TTL expires")
+    void cachedGetExpiresTest() throws Exception {
+        CoalescingFilter filter = new CoalescingFilter(500, 1024 * 1024);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(given().filter(filter).get(stub.getUrl() + BOOKS_PATH).getStatusCode()).isEqualTo(200);
+        }
+        assertThat(stub.getRequests(BOOKS_PATH)).isEqualTo(1);
+        Thread.sleep(600);
+        given().filter(filter).get(stub.getUrl() + BOOKS_PATH);
+        assertThat(stub.getRequests(BOOKS_PATH)).isEqualTo(2);
+        assertThat(filter.getCacheHits()).isEqualTo(2);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Error responses are not cached")
+    void errorsAreNotCachedTest() {
+        stub.withErrorRate(1);
+        CoalescingFilter filter = new CoalescingFilter(60_000, 1024 * 1024);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(given().filter(filter).get(stub.getUrl() + BOOKS_PATH).getStatusCode()).isEqualTo(503);
+        }
+        assertThat(stub.getRequests(BOOKS_PATH)).isEqualTo(3);
+        assertThat(filter.getCacheHits()).isZero();
+    }
+
+    private Response get(Future<Response> response) {
+        try {
+            return response.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package tests;
+
+import config.DataConfig;
+import helpers.CsvRows;
+import helpers.DataDrivenRun;
+import helpers.DataDrivenRun.DataResult;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.path.json.JsonPath;
+import models.BookCatalog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static api.AuthTokenProvider.tokenRequestBody;
+import static config.ConfigRegistry.getConfig;
+import static helpers.PhaseTimings.measure;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Data-driven BookStore REST API tests")
+public class DataDrivenTests extends TestBase {
+    private static BookCatalog catalog;
+    private final DataDrivenRun run = DataDrivenRun.fromConfig(getConfig(DataConfig.class));
+
+    @BeforeAll
+    static void warmUp() {
+        // shared by all book rows: one catalog download instead of one per row
+        measure("data warm-up", () -> catalog = BookCatalog.read(given().get("/BookStore/v1/Books").asInputStream(), false));
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.CRITICAL)
+    @DisplayName("Token is generated for valid credentials only (POST Generate user token, data/credentials.csv)")
+    void tokenScenariosTest() {
+        try (CsvRows rows = CsvRows.fromClasspath("data/credentials.csv")) {
+            DataResult result = run.run("credentials", rows,
+                    row -> "userName=" + row.get("userName") + ", authorized=" + row.get("authorized"),
+                    row -> {
+                        JsonPath response = given()
+                                .contentType(JSON)
+                                .body(tokenRequestBody(
+                                        credential(row.get("userName")), credential(row.get("password"))))
+                                .post(GENERATE_TOKEN_PATH)
+                                .jsonPath();
+                        if (Boolean.parseBoolean(row.get("authorized"))) {
+                            assertThat(response.getString("status")).isEqualTo("Success");
+                            assertThat(response.getString("token")).isNotEmpty();
+                        } else {
+                            assertThat(response.getString("token")).isNull();
+                        }
+                    });
+
+            assertThat(result.getRows()).isPositive();
+            assertThat(result.getFailures()).as(result.summary()).isEmpty();
+        }
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Books are found by ISBN (GET Books, data/books.csv)")
+    void bookScenariosTest() {
+        try (CsvRows rows = CsvRows.fromClasspath("data/books.csv")) {
+            DataResult result = run.run("books", rows,
+                    row -> "isbn=" + row.get("isbn") + ", present=" + row.get("present"),
+                    row -> assertThat(catalog.indexOf(row.get("isbn")) >= 0)
+                            .isEqualTo(Boolean.parseBoolean(row.get("present"))));
+
+            assertThat(result.getRows()).isPositive();
+            assertThat(result.getFailures()).as(result.summary()).isEmpty();
+        }
+    }
+
+    /**
+     * Credentials aren't committed: {@code ${user.login}} and {@code ${user.password}} in the csv stand for
+     * the configured user.
+     */
+    private static String credential(String value) {
+        if ("${user.login}".equals(value)) return TestData.getUserLogin();
+        if ("${user.password}".equals(value)) return TestData.getUserPassword();
+        return value;
+    }
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import api.ApiSpecs;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static api.AuthTokenProvider.GENERATE_TOKEN_PATH;
+import static api.JsonSchemaRegistry.matchesCachedJsonSchemaInClasspath;
+import static api.StreamingExtractor.books;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static stubs.DemoQaStub.BOOKS_PATH;
+
+@DisplayName("BookStore stub tests")
+public class DemoQaStubTests {
+
+    @BeforeAll
+    static void setUp() {
+        ApiSpecs.install();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Stub serves a schema-valid catalog of the configured size")
+    void booksPayloadSizeTest() throws IOException {
+        try (DemoQaStub stub = DemoQaStub.start().withBooks(1000)) {
+            given()
+                    .get(stub.getUrl() + BOOKS_PATH)
+                    .then()
+                    .statusCode(200)
+                    .body(matchesCachedJsonSchemaInClasspath("jsonSchemas/booklist_response.json"));
+
+            assertThat(books().forEach(given().get(stub.getUrl() + BOOKS_PATH), book -> {
+            })).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Injected failures repeat for the same seed")
+    void errorRateTest() throws IOException {
+        List<Integer> first = statusCodes(7);
+        List<Integer> second = statusCodes(7);
+
+        assertThat(first).containsOnly(200, 503);
+        assertThat(first.stream().filter(code -> code == 503).count()).isBetween(10L, 30L);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Stub answers other paths with 404 and other methods with 405")
+    void unknownRoutesTest() throws IOException {
+        try (DemoQaStub stub = DemoQaStub.start()) {
+            assertThat(given().delete(stub.getUrl() + BOOKS_PATH + "XYZ").getStatusCode()).isEqualTo(404);
+            assertThat(given().get(stub.getUrl() + BOOKS_PATH + "/").getStatusCode()).isEqualTo(404);
+            assertThat(given().delete(stub.getUrl() + BOOKS_PATH).getHeader("Allow")).isEqualTo("GET");
+            assertThat(given().get(stub.getUrl() + GENERATE_TOKEN_PATH).getStatusCode()).isEqualTo(405);
+            assertThat(stub.getRequests(BOOKS_PATH)).isZero();
+            assertThat(stub.getTokenRequests()).isZero();
+        }
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Running stub doesn't keep the JVM alive")
+    void daemonThreadsTest() throws IOException {
+        try (DemoQaStub stub = DemoQaStub.start()) {
+            given().get(stub.getUrl() + BOOKS_PATH);
+
+            assertThat(Thread.getAllStackTraces().keySet())
+                    .filteredOn(thread -> thread.getName().startsWith("HTTP-Dispatcher")
+                            || thread.getName().startsWith("demoqa-stub"))
+                    .isNotEmpty()
+                    .allMatch(Thread::isDaemon);
+        }
+    }
+
+    private static List<Integer> statusCodes(long seed) throws IOException {
+        try (DemoQaStub stub = DemoQaStub.start().withErrorRate(0.5).withSeed(seed)) {
+            return IntStream.range(0, 40)
+                    .mapToObj(i -> given().get(stub.getUrl() + BOOKS_PATH).getStatusCode())
+                    .collect(Collectors.toList());
+        }
+    }
+}
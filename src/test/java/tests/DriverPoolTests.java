@@ -0,0 +1,141 @@
+package tests;
+
+import helpers.DriverPool;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Browser session pool tests on fake drivers")
+public class DriverPoolTests {
+    private static final DesiredCapabilities CAPABILITIES = new DesiredCapabilities();
+
+    private final List<FakeDriver> drivers = new CopyOnWriteArrayList<>();
+
+    private DriverPool pool(int size, int maxReuse, Duration idleTimeout) {
+        return new DriverPool(size, maxReuse, idleTimeout, capabilities -> {
+            FakeDriver fake = new FakeDriver();
+            drivers.add(fake);
+            return fake.driver;
+        });
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Released session is reset and reused")
+    void sessionIsReusedTest() {
+        DriverPool pool = pool(1, 10, Duration.ofMinutes(1));
+
+        WebDriver first = pool.acquire(CAPABILITIES);
+        assertThat(pool.release(first)).isFalse();
+        WebDriver second = pool.acquire(CAPABILITIES);
+
+        assertThat(second).isSameAs(first);
+        assertThat(pool.getCreated()).isEqualTo(1);
+        assertThat(drivers.get(0).calls).contains("deleteAllCookies", "executeScript", "to:about:blank");
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Broken session is evicted")
+    void brokenSessionIsEvictedTest() {
+        DriverPool pool = pool(1, 10, Duration.ofMinutes(1));
+
+        WebDriver first = pool.acquire(CAPABILITIES);
+        pool.release(first);
+        drivers.get(0).broken = true;
+        WebDriver second = pool.acquire(CAPABILITIES);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(pool.getEvicted()).isEqualTo(1);
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Session is quit after max reuse count and idle timeout")
+    void sessionIsRetiredTest() throws InterruptedException {
+        DriverPool reusePool = pool(1, 2, Duration.ofMinutes(1));
+        assertThat(reusePool.release(reusePool.acquire(CAPABILITIES))).isFalse();
+        assertThat(reusePool.release(reusePool.acquire(CAPABILITIES))).isTrue();
+        assertThat(drivers.get(0).calls).contains("quit");
+
+        DriverPool idlePool = pool(1, 10, Duration.ofMillis(50));
+        WebDriver first = idlePool.acquire(CAPABILITIES);
+        idlePool.release(first);
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(idlePool.acquire(CAPABILITIES)).isNotSameAs(first);
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Pool size bounds concurrent sessions")
+    void poolIsBoundedTest() throws Exception {
+        DriverPool pool = pool(1, 10, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            WebDriver first = pool.acquire(CAPABILITIES);
+            Future<WebDriver> waiting = executor.submit(() -> pool.acquire(CAPABILITIES));
+
+            assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+            pool.release(first);
+            assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            assertThat(pool.getCreated()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class FakeDriver {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private volatile boolean broken;
+        private final WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if (broken) throw new WebDriverException("Session is gone");
+                    switch (method.getName()) {
+                        case "manage":
+                            return fake(WebDriver.Options.class);
+                        case "navigate":
+                            return fake(WebDriver.Navigation.class);
+                        case "getWindowHandle":
+                            return "window-1";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            calls.add(method.getName());
+                            return null;
+                    }
+                });
+
+        private <T> T fake(Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        calls.add(args == null ? method.getName() : method.getName() + ":" + args[0]);
+                        return null;
+                    }));
+        }
+    }
+}
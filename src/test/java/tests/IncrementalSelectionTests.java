@@ -0,0 +1,203 @@
+package tests;
+
+import helpers.IncrementalSelection.Fingerprints;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import stubs.DemoQaStub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static stubs.DemoQaStub.BOOKS_PATH;
+
+@DisplayName("Incremental selection of read-only API tests")
+public class IncrementalSelectionTests {
+    private static final String TEST = "tests.BookStoreTests#noLogsTest";
+
+    private DemoQaStub stub;
+    private Path file;
+    private Path classes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = DemoQaStub.start().withBooks(8);
+        file = Files.createTempDirectory("incremental-").resolve("fingerprints.json");
+        classes = Files.createTempDirectory("incremental-classes-");
+        copyClass(Probe.class);
+        copyClass(ProbeHelper.class);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Passed test is reused while its endpoint and code are unchanged")
+    void unchangedTestIsReusedTest() throws Exception {
+        Fingerprints first = new Fingerprints(file);
+        String current = first.current(books(), probe());
+        assertThat(current).isNotNull();
+        assertThat(first.reusable(TEST, current)).isFalse();
+        first.passed(TEST, current);
+        first.close();
+
+        Fingerprints second = new Fingerprints(file);
+        assertThat(second.current(books(), probe())).isEqualTo(current);
+        assertThat(second.reusable(TEST, second.current(books(), probe()))).isTrue();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Changed response forces a re-run")
+    void changedResponseIsRunTest() throws Exception {
+        passInNewRun();
+
+        stub.withBooks(9);
+
+        Fingerprints next = new Fingerprints(file);
+        assertThat(next.reusable(TEST, next.current(books(), probe()))).isFalse();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Changed class used by the test forces a re-run")
+    void changedClassIsRunTest() throws Exception {
+        String before = passInNewRun();
+
+        // a recompiled helper: same name, other bytecode
+        Files.write(classFile(ProbeHelper.class), new byte[]{0}, StandardOpenOption.APPEND);
+
+        Fingerprints next = new Fingerprints(file);
+        String after = next.current(books(), probe());
+        assertThat(after).isNotEqualTo(before);
+        assertThat(next.reusable(TEST, after)).isFalse();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Code fingerprint follows the classes a test uses and its resources")
+    void codeFingerprintTest() throws Exception {
+        copyResource("jsonSchemas/booklist_response.json");
+        Fingerprints fingerprints = new Fingerprints(file);
+        Class<?> probe = probe();
+
+        String code = fingerprints.code(probe);
+        assertThat(new Fingerprints(file).code(probe)).isEqualTo(code);
+        assertThat(fingerprints.code(probe, "jsonSchemas/booklist_response.json")).isNotEqualTo(code);
+        assertThat(fingerprints.code(probe, "jsonSchemas/missing.json")).isNull();
+        Files.write(classFile(ProbeHelper.class), new byte[]{0}, StandardOpenOption.APPEND);
+        assertThat(new Fingerprints(file).code(probe)).isNotEqualTo(code);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Failed test and unreachable endpoint are run again")
+    void failedOrUnreachableIsRunTest() throws Exception {
+        String current = passInNewRun();
+
+        Fingerprints failed = new Fingerprints(file);
+        failed.invalidate(TEST);
+        failed.close();
+        assertThat(new Fingerprints(file).reusable(TEST, current)).isFalse();
+
+        DemoQaStub stopped = DemoQaStub.start();
+        String url = stopped.getUrl() + BOOKS_PATH;
+        stopped.close();
+        Fingerprints unreachable = new Fingerprints(file);
+        assertThat(unreachable.current(url, probe())).isNull();
+        assertThat(unreachable.reusable(TEST, null)).isFalse();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Fingerprints of parallel forks are merged")
+    void forksAreMergedTest() throws Exception {
+        Fingerprints previous = new Fingerprints(file);
+        previous.passed("A#kept", "a");
+        previous.passed("A#failed", "a");
+        previous.passed("A#rerun", "a");
+        previous.close();
+
+        // both forks start from the previous run
+        Fingerprints fork1 = new Fingerprints(file);
+        Fingerprints fork2 = new Fingerprints(file);
+        fork1.passed("A#rerun", "b");
+        fork1.invalidate("A#failed");
+        fork2.passed("B#new", "b");
+        fork1.close();
+        fork2.close();
+
+        Fingerprints merged = new Fingerprints(file);
+        assertThat(merged.reusable("A#kept", "a")).isTrue();
+        assertThat(merged.reusable("A#rerun", "b")).isTrue();
+        assertThat(merged.reusable("A#failed", "a")).isFalse();
+        assertThat(merged.reusable("B#new", "b")).isTrue();
+    }
+
+    private String passInNewRun() throws Exception {
+        Fingerprints run = new Fingerprints(file);
+        String current = run.current(books(), probe());
+        run.passed(TEST, current);
+        run.close();
+        return current;
+    }
+
+    private String books() {
+        return stub.getUrl() + BOOKS_PATH;
+    }
+
+    /**
+     * {@link Probe} loaded from a classpath root of its own, where its class files can be changed.
+     */
+    private Class<?> probe() throws Exception {
+        return Class.forName(Probe.class.getName(), false,
+                new URLClassLoader(new URL[]{classes.toUri().toURL()}, null));
+    }
+
+    private void copyClass(Class<?> type) throws IOException {
+        copyResource(type.getName().replace('.', '/') + ".class");
+    }
+
+    private void copyResource(String resource) throws IOException {
+        Path target = classes.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, target);
+        }
+    }
+
+    private Path classFile(Class<?> type) {
+        return classes.resolve(type.getName().replace('.', '/') + ".class");
+    }
+
+    static class Probe {
+        int pages() {
+            return ProbeHelper.pages();
+        }
+    }
+
+    static class ProbeHelper {
+        static int pages() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package tests;
+
+import helpers.BatchingResultsWriter;
+import helpers.ScreenshotPipeline;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.junit5.AllureJunit5;
+import io.qameta.allure.model.Attachment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Screenshot pipeline tests on Allure results")
+public class ScreenshotPipelineTests {
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Screenshot attached in @AfterEach is written as jpeg")
+    void jpegScreenshotFromAfterEachTest() throws Exception {
+        Path results = Files.createTempDirectory("allure-results-");
+
+        List<Attachment> attachments = attachFromAfterEach(results, png(64, 48));
+
+        assertThat(attachments).extracting(Attachment::getName, Attachment::getType)
+                .containsExactly(tuple("Last screenshot", "image/jpeg"));
+        assertThat(attachments.get(0).getSource()).endsWith(".jpg");
+        assertThat(results.resolve(attachments.get(0).getSource())).exists();
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Screenshot attached in @AfterEach that can't be encoded is attached as png")
+    void unencodableScreenshotFromAfterEachTest() throws Exception {
+        Path results = Files.createTempDirectory("allure-results-");
+
+        List<Attachment> attachments = attachFromAfterEach(results, "not an image".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(attachments).extracting(Attachment::getName, Attachment::getType)
+                .containsExactly(tuple("Last screenshot", "image/png"));
+        assertThat(attachments.get(0).getSource()).endsWith(".png");
+        assertThat(results.resolve(attachments.get(0).getSource())).exists();
+        assertThat(AllureRun.files(results, ".jpg")).isEmpty();
+    }
+
+    private static List<Attachment> attachFromAfterEach(Path results, byte[] screenshot) throws IOException {
+        BatchingResultsWriter writer = new BatchingResultsWriter(results, 64, 1024 * 1024, 0, 0);
+        AttachScreenshotAfterEach.pipeline = new ScreenshotPipeline(1, 4, 0.5, "jpeg", 0.7f, writer);
+        AttachScreenshotAfterEach.screenshot = screenshot;
+        try {
+            AllureRun.run(AttachScreenshotAfterEach.class, writer);
+            assertThat(AttachScreenshotAfterEach.pipeline.awaitCompletion(Duration.ofSeconds(10))).isTrue();
+        } finally {
+            AttachScreenshotAfterEach.pipeline = null;
+            writer.close();
+        }
+        return AllureRun.fixtureAttachments(results);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", png);
+        return png.toByteArray();
+    }
+
+    /**
+     * Attaches a screenshot from {@code @AfterEach} like {@link TestBase}; run by the tests above only.
+     */
+    @ExtendWith(AllureJunit5.class)
+    static class AttachScreenshotAfterEach {
+        static volatile ScreenshotPipeline pipeline;
+        static volatile byte[] screenshot;
+
+        @Test
+        void test() {
+        }
+
+        @AfterEach
+        void attachScreenshot() {
+            if (pipeline != null) pipeline.attach("Last screenshot", screenshot);
+        }
+    }
+}
@@ -1,35 +1,69 @@
 package tests;
 
+import api.ApiSpecs;
 import com.codeborne.selenide.Configuration;
+import helpers.IncrementalSelection;
+import helpers.MetricsExtension;
+import helpers.PhaseTimings;
+import helpers.ScreenshotPipeline;
+import helpers.VideoAttachmentQueue;
+import io.qameta.allure.Allure;
 import io.qameta.allure.junit5.AllureJunit5;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static com.codeborne.selenide.WebDriverRunner.closeWebDriver;
+import static com.codeborne.selenide.WebDriverRunner.hasWebDriverStarted;
 import static helpers.AttachmentsHelper.*;
 import static helpers.DriverHelper.*;
+import static helpers.PhaseTimings.measure;
 
-@ExtendWith({AllureJunit5.class})
+@ExtendWith({AllureJunit5.class, MetricsExtension.class, IncrementalSelection.class, PhaseTimings.class,
+        ScreenshotPipeline.RecordOutcome.class, ScreenshotPipeline.AwaitPending.class,
+        VideoAttachmentQueue.AwaitPending.class})
 public class TestBase {
 
     @BeforeAll
     static void setUp() {
-        configureDriver();
-        RestAssured.baseURI = TestData.getApiUrl();
-        Configuration.baseUrl = TestData.getWebUrl();
+        measure("setup", () -> {
+            configureDriver();
+            RestAssured.baseURI = TestData.getApiUrl();
+            ApiSpecs.install();
+            Configuration.baseUrl = TestData.getWebUrl();
+        });
+    }
+
+    @BeforeEach
+    public void addListeners() {
+        // Selenide listeners are thread-local, the browser itself starts on first use
+        addDriverListeners();
     }
 
     @AfterEach
     public void addAttachments() {
+        if (!hasWebDriverStarted()) return;
+
         String sessionId = getSessionId();
 
-        attachScreenshot("Last screenshot");
-        attachPageSource();
-        attachAsText("Browser console logs", getConsoleLogs());
+        measure("attachments", () -> {
+            attachLastScreenshot("Last screenshot");
+            attachPageSource();
+            attachAsText("Browser console logs", getConsoleLogs());
+        });
 
-        closeWebDriver();
-        if (isVideoOn()) attachVideo(sessionId);
+        if (isDriverPoolEnabled()) {
+            Allure.parameter("Browser session", sessionId);
+            long start = System.nanoTime();
+            boolean sessionClosed = releaseDriver();
+            PhaseTimings.record("driver release", System.nanoTime() - start);
+            // the video file is only finalized once a pooled session is quit
+            if (isVideoOn() && sessionClosed) measure("video", () -> attachVideo(sessionId));
+        } else {
+            measure("driver close", () -> closeWebDriver());
+            if (isVideoOn()) measure("video", () -> attachVideo(sessionId));
+        }
     }
 }
\ No newline at end of file
@@ -1,23 +1,37 @@
 package tests;
 
 import config.cv_config.TestDataConfig;
-import org.aeonbits.owner.ConfigFactory;
+import stubs.DemoQaStub;
+
+import static config.ConfigRegistry.getConfig;
 
 public class TestData {
     private static TestDataConfig getTestData() {
-        return ConfigFactory.newInstance().create(TestDataConfig.class, System.getProperties());
+        return getConfig(TestDataConfig.class);
     }
 
     public static String getWebUrl() {
         return getTestData().webUrl();
     }
+    /**
+     * {@code api.url=stub} starts the in-process {@link DemoQaStub} and points the tests at it.
+     */
     public static String getApiUrl() {
-        return getTestData().apiUrl();
+        String apiUrl = getTestData().apiUrl();
+        return "stub".equals(apiUrl) ? DemoQaStub.shared().getUrl() : apiUrl;
     }
     public static String getUserLogin() {
-        return getTestData().userLogin();
+        return required("user.login", getTestData().userLogin());
     }
     public static String getUserPassword() {
-        return getTestData().userPassword();
+        return required("user.password", getTestData().userPassword());
+    }
+
+    private static String required(String key, String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException(key + " is not set: add it to config/remote_config/testdata.properties"
+                    + " or pass -D" + key + "=...");
+        }
+        return value;
     }
 }
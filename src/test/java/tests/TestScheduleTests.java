@@ -0,0 +1,86 @@
+package tests;
+
+import helpers.TestSchedule;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Test class schedule tests")
+public class TestScheduleTests {
+    private static final int BLOCKER = SeverityLevel.BLOCKER.ordinal();
+    private static final int CRITICAL = SeverityLevel.CRITICAL.ordinal();
+    private static final int NORMAL = SeverityLevel.NORMAL.ordinal();
+    private static final int MINOR = SeverityLevel.MINOR.ordinal();
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Classes run longest first, each on the least loaded shard")
+    void longestFirstBalancingTest() {
+        TestSchedule schedule = TestSchedule.plan(Arrays.asList(
+                new TestSchedule.Entry("C", 60, NORMAL),
+                new TestSchedule.Entry("E", 20, NORMAL),
+                new TestSchedule.Entry("A", 100, NORMAL),
+                new TestSchedule.Entry("D", 40, NORMAL),
+                new TestSchedule.Entry("B", 80, NORMAL)), 2, false);
+
+        assertThat(schedule.getOrder())
+                .extracting(TestSchedule.Entry::getClassName, TestSchedule.Entry::getShard)
+                .containsExactly(tuple("A", 1), tuple("B", 2), tuple("C", 2), tuple("D", 1), tuple("E", 1));
+        assertThat(schedule.predictedMillis(1)).isEqualTo(160);
+        assertThat(schedule.predictedMillis(2)).isEqualTo(140);
+        assertThat(schedule.makespanMillis()).isEqualTo(160);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Without history classes run by severity, blocker first")
+    void severityFallbackTest() {
+        TestSchedule schedule = TestSchedule.plan(Arrays.asList(
+                new TestSchedule.Entry("Minor", 5, MINOR),
+                new TestSchedule.Entry("Normal", 3, NORMAL),
+                new TestSchedule.Entry("Blocker", 1, BLOCKER),
+                new TestSchedule.Entry("CriticalLong", 4, CRITICAL),
+                new TestSchedule.Entry("CriticalShort", 2, CRITICAL)), 1, true);
+
+        assertThat(schedule.getOrder()).extracting(TestSchedule.Entry::getClassName)
+                .containsExactly("Blocker", "CriticalLong", "CriticalShort", "Normal", "Minor");
+        assertThat(schedule.makespanMillis()).isEqualTo(15);
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("With history severity and name only break ties")
+    void severityBreaksTiesTest() {
+        TestSchedule schedule = TestSchedule.plan(Arrays.asList(
+                new TestSchedule.Entry("B", 50, NORMAL),
+                new TestSchedule.Entry("A", 50, NORMAL),
+                new TestSchedule.Entry("Blocker", 10, BLOCKER),
+                new TestSchedule.Entry("Critical", 50, CRITICAL)), 3, false);
+
+        assertThat(schedule.getOrder())
+                .extracting(TestSchedule.Entry::getClassName, TestSchedule.Entry::getShard)
+                .containsExactly(tuple("Critical", 1), tuple("A", 2), tuple("B", 3), tuple("Blocker", 1));
+        assertThat(schedule.shardOf("Blocker")).isEqualTo(1);
+        assertThat(schedule.shardOf("NotPlanned")).isZero();
+    }
+
+    @Test
+    @Tag("api")
+    @Severity(SeverityLevel.MINOR)
+    @DisplayName("Plan needs at least one shard")
+    void noShardsTest() {
+        assertThrows(IllegalArgumentException.class, () -> TestSchedule.plan(Collections.emptyList(), 0, false));
+    }
+}
@@ -0,0 +1,121 @@
+package tests;
+
+import helpers.BatchingResultsWriter;
+import helpers.VideoAttachmentQueue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.junit5.AllureJunit5;
+import io.qameta.allure.model.Attachment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import stubs.VideoStorageStub;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Background video attachment tests on local video storage")
+public class VideoAttachmentTests {
+    private static final Path RESULTS = Paths.get(System.getProperty("allure.results.directory", "allure-results"));
+
+    private VideoStorageStub storage;
+
+    @BeforeEach
+    void startStorage() throws IOException {
+        storage = VideoStorageStub.start();
+    }
+
+    @AfterEach
+    void stopStorage() {
+        storage.close();
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Delayed video is downloaded with retries off the test thread")
+    void delayedVideoIsAttachedTest() throws Exception {
+        storage.addVideo("session-1", 3 * 1024 * 1024, Duration.ofMillis(300));
+        VideoAttachmentQueue queue = new VideoAttachmentQueue(2, 6, Duration.ofMillis(50), Duration.ofMillis(400));
+
+        long start = System.nanoTime();
+        CompletableFuture<String> video = queue.attach(new URL(storage.getUrl() + "session-1.mp4"));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+
+        String source = video.get(10, TimeUnit.SECONDS);
+        assertThat(Files.size(RESULTS.resolve(source))).isEqualTo(3 * 1024 * 1024);
+        assertThat(storage.getRequests()).isGreaterThan(1);
+        assertThat(queue.awaitCompletion(Duration.ofSeconds(1))).isTrue();
+        assertThat(queue.getFailures()).isEmpty();
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Missing video is recorded as a failure after max attempts")
+    void missingVideoIsRecordedTest() throws Exception {
+        VideoAttachmentQueue queue = new VideoAttachmentQueue(2, 3, Duration.ofMillis(10), Duration.ofMillis(40));
+
+        CompletableFuture<String> video = queue.attach(new URL(storage.getUrl() + "missing.mp4"));
+
+        assertThrows(ExecutionException.class, () -> video.get(10, TimeUnit.SECONDS));
+        assertThat(storage.getRequests()).isEqualTo(3);
+        assertThat(queue.getFailures()).hasSize(1);
+    }
+
+    @Test
+    @Tag("ui")
+    @Severity(SeverityLevel.NORMAL)
+    @DisplayName("Missing video attached in @AfterEach is replaced in the fixture's container")
+    void missingVideoFromAfterEachIsReplacedTest() throws Exception {
+        Path results = Files.createTempDirectory("allure-results-");
+        BatchingResultsWriter writer = new BatchingResultsWriter(results, 64, 1024 * 1024, 0, 0);
+        AttachVideoAfterEach.queue = new VideoAttachmentQueue(1, 2, Duration.ofMillis(200), Duration.ofMillis(200), writer);
+        AttachVideoAfterEach.video = new URL(storage.getUrl() + "missing.mp4");
+        try {
+            AllureRun.run(AttachVideoAfterEach.class, writer);
+            assertThat(AttachVideoAfterEach.queue.awaitCompletion(Duration.ofSeconds(10))).isTrue();
+        } finally {
+            AttachVideoAfterEach.queue = null;
+            writer.close();
+        }
+
+        List<Attachment> attachments = AllureRun.fixtureAttachments(results);
+        assertThat(attachments).extracting(Attachment::getName).containsExactly("Video not attached");
+        assertThat(results.resolve(attachments.get(0).getSource())).exists();
+        assertThat(AllureRun.files(results, ".mp4")).isEmpty();
+    }
+
+    /**
+     * Attaches a video from {@code @AfterEach} like {@link TestBase}; run by
+     * {@link #missingVideoFromAfterEachIsReplacedTest()} only.
+     */
+    @ExtendWith(AllureJunit5.class)
+    static class AttachVideoAfterEach {
+        static volatile VideoAttachmentQueue queue;
+        static volatile URL video;
+
+        @Test
+        void test() {
+        }
+
+        @AfterEach
+        void attachVideo() {
+            if (queue != null) queue.attach(video);
+        }
+    }
+}